@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.catalog.entity.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic catalog data: 10 cities, 4 event types, every status
+final class CatalogFixtures {
+
+    static final String[] CITIES = {"Mumbai", "Delhi", "Bengaluru", "Chennai", "Kolkata",
+            "Hyderabad", "Pune", "Jaipur", "Ahmedabad", "Kochi"};
+    static final String[] TYPES = {"Concert", "Sports", "Theatre", "Comedy"};
+
+    private CatalogFixtures() {
+    }
+
+    static List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        Status[] statuses = Status.values();
+        for (int i = 0; i < count; i++) {
+            Event e = new Event();
+            e.setEventId(String.format("ev-%08d", i));
+            e.setVenueId("venue-" + (i % 200));
+            e.setVenueName("Arena " + (i % 200));
+            e.setVenueCity(CITIES[i % CITIES.length]);
+            e.setTitle("Event " + i);
+            e.setEventType(TYPES[(i / CITIES.length) % TYPES.length]);
+            e.setEventDate(LocalDateTime.of(2026, 1, 1, 19, 30).plusDays(i % 365));
+            e.setBasePrice(500 + (i % 20) * 50);
+            e.setStatus(statuses[i % statuses.length]);
+            events.add(e);
+        }
+        return events;
+    }
+
+    static List<Seat> seats(String eventId, int count) {
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Seat s = new Seat();
+            s.setSeatId(eventId + "-seat-" + i);
+            s.setEventId(eventId);
+            s.setSection("S" + (i / 500));
+            s.setSeatRow(String.valueOf((char) ('A' + (i / 25) % 20)));
+            s.setSeatNumber(String.valueOf(i % 25 + 1));
+            s.setPrice(750);
+            seats.add(s);
+        }
+        return seats;
+    }
+}
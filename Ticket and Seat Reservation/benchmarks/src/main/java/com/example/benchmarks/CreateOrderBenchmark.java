@@ -0,0 +1,57 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of OrderService.createOrder with no I/O: seat holds, item building,
+ * BigDecimal subtotal and tax, the conditional status update and the payment
+ * call, against the in-memory repository and an instant payment client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateOrderBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int items;
+
+    private OrderService orderService;
+    private long seq;
+
+    @Setup
+    public void setUp() {
+        orderService = OrderServiceFixtures.orderService(0, false);
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(request(seq++));
+    }
+
+    // fresh seat codes every call, so holds never conflict
+    private PlaceOrderRequest request(long n) {
+        List<PlaceOrderRequest.OrderLine> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            PlaceOrderRequest.OrderLine line = new PlaceOrderRequest.OrderLine();
+            line.eventId = "event-1";
+            line.seatCode = "S-" + n + "-" + i;
+            line.price = new BigDecimal("499.00");
+            lines.add(line);
+        }
+        PlaceOrderRequest req = new PlaceOrderRequest();
+        req.userId = "user-1";
+        req.lines = lines;
+        return req;
+    }
+}
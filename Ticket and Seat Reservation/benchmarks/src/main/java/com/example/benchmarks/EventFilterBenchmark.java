@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import com.example.catalog.entity.Event;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory GET /api/events?city=&type=&status= filtering.
+ * fullScan is the original controller: findAll(), then three equalsIgnoreCase
+ * filters over every event. firstPage applies the same predicates to the
+ * id-ordered list but stops at one page, which is the work the keyset query
+ * asks of Mongo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventFilterBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    public int events;
+
+    private List<Event> all;
+    private final String city = "pune";
+    private final String type = "concert";
+    private final String status = "available";
+
+    @Setup
+    public void setUp() {
+        all = CatalogFixtures.events(events);
+    }
+
+    @Benchmark
+    public List<Event> fullScan() {
+        return all.stream()
+                .filter(e -> city == null || e.getVenueCity().equalsIgnoreCase(city))
+                .filter(e -> type == null ||
+                        (e.getEventType() != null && e.getEventType().equalsIgnoreCase(type)))
+                .filter(e -> status == null ||
+                        (e.getStatus() != null && e.getStatus().toString().equalsIgnoreCase(status)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Event> firstPage() {
+        List<Event> page = new ArrayList<>(PAGE_SIZE);
+        for (Event e : all) {
+            if (e.getVenueCity().equalsIgnoreCase(city)
+                    && e.getEventType() != null && e.getEventType().equalsIgnoreCase(type)
+                    && e.getStatus() != null && e.getStatus().name().equalsIgnoreCase(status)) {
+                page.add(e);
+                if (page.size() == PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.benchmarks;
+
+import com.example.catalog.dto.SeatView;
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.domain.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-body serialization with the ObjectMapper Spring MVC builds:
+ * an Order with its items, a single Event and Seat, an /api/events page and
+ * the seat list of one event as served by /api/seats/event/{eventId}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"4", "50"})
+    public int orderItems;
+
+    @Param({"1000"})
+    public int seatsPerEvent;
+
+    private ObjectMapper mapper;
+    private Order order;
+    private Event event;
+    private Seat seat;
+    private List<Event> eventPage;
+    private List<SeatView> seatViews;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        order = new Order();
+        order.setId("65f1c0ffee0123456789abcd");
+        order.setUserId("user-42");
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setTotal(new BigDecimal("1050.00"));
+        for (int i = 0; i < orderItems; i++) {
+            OrderItem item = new OrderItem();
+            item.setEventId("event-7");
+            item.setSeatCode("C-12-" + i);
+            item.setPrice(new BigDecimal("250.00"));
+            order.getItems().add(item);
+        }
+
+        eventPage = CatalogFixtures.events(20);
+        event = eventPage.get(0);
+        List<Seat> seats = CatalogFixtures.seats(event.getEventId(), seatsPerEvent);
+        seat = seats.get(0);
+        seatViews = seats.stream()
+                .map(s -> new SeatView(s.getSeatId(), s.getEventId(), event.getTitle(), event.getVenueName(),
+                        s.getSection(), s.getSeatRow(), s.getSeatNumber(), s.getPrice()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] order() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] event() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] seat() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(seat);
+    }
+
+    @Benchmark
+    public byte[] eventPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(eventPage);
+    }
+
+    @Benchmark
+    public byte[] seatsOfEvent() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(seatViews);
+    }
+}
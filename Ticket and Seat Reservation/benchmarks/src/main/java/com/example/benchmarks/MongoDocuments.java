@@ -0,0 +1,34 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.config.MongoConfig;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+// Spring Data's entity -> BSON mapping, with order-service's conversions, without a running Mongo
+final class MongoDocuments {
+
+    private static final MappingMongoConverter CONVERTER = createConverter();
+
+    private MongoDocuments() {
+    }
+
+    static Document toDocument(Object entity) {
+        Document document = new Document();
+        CONVERTER.write(entity, document);
+        return document;
+    }
+
+    private static MappingMongoConverter createConverter() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.feign.PaymentClient;
+import com.example.orderservice.feign.dto.BatchChargeRequest;
+import com.example.orderservice.feign.dto.BatchChargeResponse;
+import com.example.orderservice.feign.dto.ChargeRequest;
+import com.example.orderservice.feign.dto.ChargeResponse;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.SoldSeatRepository;
+import com.example.orderservice.service.OrderMetrics;
+import com.example.orderservice.service.OrderPaymentQueue;
+import com.example.orderservice.service.OrderRefunds;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusStream;
+import com.example.orderservice.service.PaymentBatcher;
+import com.example.orderservice.service.PaymentGateway;
+import com.example.orderservice.service.SeatHoldManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// OrderService wired to in-memory stand-ins for Mongo and payment-service
+final class OrderServiceFixtures {
+
+    private OrderServiceFixtures() {
+    }
+
+    static OrderService orderService(long paymentLatencyMillis, boolean virtualThreads) {
+        PaymentClient paymentClient = paymentClient(paymentLatencyMillis);
+        // bulkhead and breaker sized so they never trip; only the extra call hop is measured
+        PaymentGateway gateway = new PaymentGateway(new PaymentBatcher(paymentClient, false, 1, 0, 1, 1000),
+                100_000, 1000, 60_000, 50, 20, 1.0, 10_000, 5, false, 0, virtualThreads);
+        OrderRepository orderRepository = orderRepository();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new OrderService(
+                orderRepository,
+                gateway,
+                new SeatHoldManager(soldSeatRepository(), TimeUnit.MINUTES.toMillis(2), TimeUnit.MINUTES.toMillis(15)),
+                // every charge succeeds and seats are never contended, so no refund is ever due
+                new OrderRefunds(null, orderRepository, paymentClient, registry, 1),
+                new OrderPaymentQueue(1, 1, false),
+                new OrderStatusStream(1000),
+                new OrderMetrics(registry, ObservationRegistry.NOOP));
+    }
+
+    // insert assigns an id, conditional status updates always apply, nothing is stored
+    static OrderRepository orderRepository() {
+        AtomicLong ids = new AtomicLong();
+        return (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "insert", "save" -> {
+                        Order order = (Order) args[0];
+                        if (order.getId() == null) {
+                            order.setId(Long.toHexString(ids.incrementAndGet()));
+                        }
+                        yield order;
+                    }
+                    case "transitionStatus" -> true;
+                    case "findById" -> Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryOrderRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // nothing is ever sold before, and every sale succeeds; nothing is stored
+    static SoldSeatRepository soldSeatRepository() {
+        return (SoldSeatRepository) Proxy.newProxyInstance(
+                SoldSeatRepository.class.getClassLoader(),
+                new Class<?>[]{SoldSeatRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllById" -> List.of();
+                    case "sellAll" -> true;
+                    case "deleteByOrderId" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemorySoldSeatRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Blocks for the injected latency, then approves the charge
+    static PaymentClient paymentClient(long latencyMillis) {
+        return new PaymentClient() {
+            @Override
+            public ChargeResponse charge(String idempotencyKey, ChargeRequest req) {
+                if (latencyMillis > 0) {
+                    try {
+                        Thread.sleep(latencyMillis);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new ChargeResponse("pay_" + idempotencyKey, "SUCCESS", "Charged successfully");
+            }
+
+            @Override
+            public ChargeResponse lookup(String idempotencyKey) {
+                throw new UnsupportedOperationException("reconciliation does not run in benchmarks");
+            }
+
+            @Override
+            public BatchChargeResponse chargeBatch(BatchChargeRequest req) {
+                throw new UnsupportedOperationException("batching is disabled in benchmarks");
+            }
+
+            @Override
+            public String refund(String paymentId) {
+                throw new UnsupportedOperationException("orders are never refunded in benchmarks");
+            }
+        };
+    }
+}
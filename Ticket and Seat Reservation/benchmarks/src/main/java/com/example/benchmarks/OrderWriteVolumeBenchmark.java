@@ -0,0 +1,92 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.domain.OrderStatus;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes sent to order-db per order by OrderService.createOrder.
+ * legacy: insert CREATED, then two full-document replaces (PENDING_PAYMENT, final status).
+ * conditional: one insert as PENDING_PAYMENT, then a {_id, status} filtered $set on status.
+ * The bytes counter reports encoded BSON per order for each path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderWriteVolumeBenchmark {
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    @Param({"1", "4", "10"})
+    public int items;
+
+    private Order order;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WriteCounters {
+        public long bytes;
+        public long orders;
+
+        public double bytesPerOrder() {
+            return orders == 0 ? 0 : (double) bytes / orders;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        order = new Order();
+        order.setId("65f1c0ffee0123456789abcd");
+        order.setUserId("user-42");
+        order.setTotal(new BigDecimal("1050.00"));
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setEventId("event-7");
+            item.setSeatCode("C-12-" + i);
+            item.setPrice(new BigDecimal("250.00"));
+            order.getItems().add(item);
+        }
+    }
+
+    @Benchmark
+    public long legacyFullDocumentWrites(WriteCounters counters) {
+        long bytes = 0;
+        for (OrderStatus status : new OrderStatus[]{OrderStatus.CREATED, OrderStatus.PENDING_PAYMENT, OrderStatus.CONFIRMED}) {
+            order.setStatus(status);
+            Document filter = status == OrderStatus.CREATED ? null : new Document("_id", order.getId());
+            bytes += size(filter) + size(MongoDocuments.toDocument(order));
+        }
+        counters.bytes += bytes;
+        counters.orders++;
+        return bytes;
+    }
+
+    @Benchmark
+    public long conditionalStatusWrites(WriteCounters counters) {
+        order.setStatus(OrderStatus.PENDING_PAYMENT);
+        long bytes = size(MongoDocuments.toDocument(order));
+        Document filter = new Document("_id", order.getId()).append("status", OrderStatus.PENDING_PAYMENT.name());
+        Document update = new Document("$set", new Document("status", OrderStatus.CONFIRMED.name()));
+        bytes += size(filter) + size(update);
+        counters.bytes += bytes;
+        counters.orders++;
+        return bytes;
+    }
+
+    private static long size(Document document) {
+        if (document == null) {
+            return 0;
+        }
+        return new RawBsonDocument(document, CODEC).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.benchmarks;
+
+import com.example.catalog.service.SeatService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing the seatIds parameter of GET /api/seats/info.
+ * streamSplit is the original split/trim/filter stream; singlePass is SeatService.parseSeatIds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatIdParsingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ids;
+
+    private String seatIds;
+
+    @Setup
+    public void setUp() {
+        // ObjectId-sized ids with the odd space and empty entry real clients send
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < ids; i++) {
+            String id = String.format("65f1c0ffee01234567%06x", i);
+            joiner.add(i % 10 == 0 ? " " + id + " " : id);
+        }
+        seatIds = joiner + ",";
+    }
+
+    @Benchmark
+    public List<String> streamSplit() {
+        return Arrays.stream(seatIds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> singlePass() {
+        return SeatService.parseSeatIds(seatIds);
+    }
+}
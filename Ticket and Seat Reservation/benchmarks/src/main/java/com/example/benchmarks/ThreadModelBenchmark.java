@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocking POST /v1/orders work (OrderService.createOrder with a payment call
+ * that sleeps for latencyMs) pushed through the two request-thread models:
+ * platform = Tomcat's default 200-thread pool, virtual = one virtual thread per request.
+ * One op = {@code requests} concurrent orders; compare ms/op between the two.
+ * The virtual case needs a Java 21+ JVM to run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"20", "100"})
+    public long latencyMs;
+
+    @Param({"1000"})
+    public int requests;
+
+    private ExecutorService executor;
+    private OrderService orderService;
+    private final AtomicLong seats = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        orderService = OrderServiceFixtures.orderService(latencyMs, "virtual".equals(threads));
+        executor = "virtual".equals(threads)
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void placeOrders() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            PlaceOrderRequest req = request(seats.incrementAndGet());
+            executor.execute(() -> {
+                try {
+                    orderService.createOrder(req);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    static PlaceOrderRequest request(long seat) {
+        PlaceOrderRequest.OrderLine line = new PlaceOrderRequest.OrderLine();
+        line.eventId = "event-1";
+        line.seatCode = "S-" + seat;
+        line.price = new BigDecimal("499.00");
+        PlaceOrderRequest req = new PlaceOrderRequest();
+        req.userId = "user-1";
+        req.lines = List.of(line);
+        return req;
+    }
+
+    // Compiled for Java 17, so the Java 21 factory is looked up at runtime
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("threads=virtual needs a Java 21+ JVM", ex);
+        }
+    }
+}
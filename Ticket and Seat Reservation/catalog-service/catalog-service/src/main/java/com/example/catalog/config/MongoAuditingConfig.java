@@ -0,0 +1,10 @@
+package com.example.catalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+// Fills @LastModifiedDate on catalog documents at every save
+@Configuration
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
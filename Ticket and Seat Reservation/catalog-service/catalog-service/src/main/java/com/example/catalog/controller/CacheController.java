@@ -0,0 +1,24 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.service.CatalogCaches;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CatalogCaches caches;
+
+    public CacheController(CatalogCaches caches) {
+        this.caches = caches;
+    }
+
+    // Hit/miss/eviction counters for the event and venue read caches
+    @GetMapping("/stats")
+    public List<Map<String, Object>> getStats() {
+        return caches.stats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.dto.CatalogChangeMessage;
+import com.example.catalog.service.CatalogChangeHandler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/catalog-changes")
+public class CatalogChangeController {
+
+    private final CatalogChangeHandler handler;
+
+    public CatalogChangeController(CatalogChangeHandler handler) {
+        this.handler = handler;
+    }
+
+    // Change feed subscriber endpoint: list catalog instances' URLs in catalog.outbox.subscribers
+    @PostMapping
+    public ResponseEntity<Void> receive(@RequestBody List<CatalogChangeMessage> changes) {
+        handler.apply(changes);
+        return ResponseEntity.noContent().build();
+    }
+}
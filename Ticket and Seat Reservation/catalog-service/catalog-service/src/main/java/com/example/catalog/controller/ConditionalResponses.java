@@ -0,0 +1,113 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.entity.Versioned;
+import com.example.catalog.service.VersionStamp;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ETag/Last-Modified revalidation and per-route Cache-Control for catalog reads.
+ * The ETag is the document version, so a conditional GET is decided from the
+ * version alone and a 304 never loads or serializes the document.
+ */
+@Component
+public class ConditionalResponses {
+
+    public enum Route { EVENTS, VENUES, SEATS }
+
+    private final Map<Route, String> cacheControl = new EnumMap<>(Route.class);
+
+    public ConditionalResponses(@Value("${catalog.http.cache-control.events:no-cache}") String events,
+                                @Value("${catalog.http.cache-control.venues:no-cache}") String venues,
+                                @Value("${catalog.http.cache-control.seats:no-cache}") String seats) {
+        cacheControl.put(Route.EVENTS, events);
+        cacheControl.put(Route.VENUES, venues);
+        cacheControl.put(Route.SEATS, seats);
+    }
+
+    // A 304 when the client's validators match the current version, otherwise null.
+    // The version is only looked up when the request is conditional.
+    public <T> ResponseEntity<T> notModified(Route route, HttpServletRequest request, Supplier<VersionStamp> current) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        long ifModifiedSince = ifModifiedSince(request);
+        if (ifNoneMatch == null && ifModifiedSince < 0) {
+            return null;
+        }
+        VersionStamp stamp = current.get();
+        if (stamp == null) {
+            return null;
+        }
+        boolean fresh = ifNoneMatch != null
+                ? matches(ifNoneMatch, stamp.etag())
+                : stamp.lastModified() != null && stamp.lastModified().getEpochSecond() * 1000 <= ifModifiedSince;
+        if (!fresh) {
+            return null;
+        }
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), route, stamp).build();
+    }
+
+    // 200 with the body's validators; a missing body keeps the old empty 200
+    public <T extends Versioned> ResponseEntity<T> ok(Route route, T body) {
+        return validators(ResponseEntity.ok(), route, VersionStamp.of(body)).body(body);
+    }
+
+    // For list responses, which carry Cache-Control but no validators
+    public ResponseEntity.BodyBuilder okList(Route route) {
+        return validators(ResponseEntity.ok(), route, null);
+    }
+
+    public void applyCacheControl(Route route, HttpServletResponse response) {
+        String value = cacheControl.get(route);
+        if (!value.isBlank()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, value);
+        }
+    }
+
+    private ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, Route route, VersionStamp stamp) {
+        String value = cacheControl.get(route);
+        if (!value.isBlank()) {
+            builder.header(HttpHeaders.CACHE_CONTROL, value);
+        }
+        if (stamp != null) {
+            builder.eTag(stamp.etag());
+            Instant lastModified = stamp.lastModified();
+            if (lastModified != null) {
+                builder.lastModified(lastModified);
+            }
+        }
+        return builder;
+    }
+
+    // If-None-Match may list several tags, weak or strong, or be *
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long ifModifiedSince(HttpServletRequest request) {
+        try {
+            return request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException ex) {
+            // unparseable dates are ignored, as RFC 9110 requires
+            return -1;
+        }
+    }
+}
@@ -1,59 +1,80 @@
 package com.example.catalog.controller;
 
+import com.example.catalog.controller.ConditionalResponses.Route;
+import com.example.catalog.dto.EventSearchHit;
 import com.example.catalog.entity.Event;
-import com.example.catalog.repository.EventRepository;
+import com.example.catalog.service.CatalogVersions;
+import com.example.catalog.service.EventService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
 
-    private final EventRepository eventRepository;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
-    public EventController(EventRepository eventRepository) {
-        this.eventRepository = eventRepository;
+    private final EventService eventService;
+    private final CatalogVersions versions;
+    private final ConditionalResponses conditional;
+
+    public EventController(EventService eventService, CatalogVersions versions, ConditionalResponses conditional) {
+        this.eventService = eventService;
+        this.versions = versions;
+        this.conditional = conditional;
     }
 
+    // Filters run in Mongo; when more results exist the X-Next-Cursor header
+    // carries the value to pass back as "after" for the next page.
     @GetMapping
-    public List<Event> getEvents(@RequestParam(required = false) String city,
-                                 @RequestParam(required = false) String type,
-                                 @RequestParam(required = false) String status) {
-        return eventRepository.findAll().stream()
-                .filter(e -> city == null || e.getVenue().getCity().equalsIgnoreCase(city))
-                .filter(e -> type == null || 
-                        (e.getEventType() != null && e.getEventType().equalsIgnoreCase(type)))
-                .filter(e -> status == null || 
-                        (e.getStatus() != null && e.getStatus().toString().equalsIgnoreCase(status)))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<Event>> getEvents(@RequestParam(required = false) String city,
+                                                 @RequestParam(required = false) String type,
+                                                 @RequestParam(required = false) String status,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer size) {
+        List<Event> events = eventService.getFilteredEvents(city, type, status, after, size);
+        ResponseEntity.BodyBuilder response = conditional.okList(Route.EVENTS);
+        if (events.size() == eventService.pageSize(size)) {
+            response.header(NEXT_CURSOR_HEADER, events.get(events.size() - 1).getEventId());
+        }
+        return response.body(events);
+    }
+
+    // Search-as-you-type over title, venue name and type: prefix and one-typo matches,
+    // ranked, from the in-memory index. from/to are event dates (yyyy-MM-dd, inclusive).
+    @GetMapping("/search")
+    public ResponseEntity<List<EventSearchHit>> searchEvents(@RequestParam String q,
+                                                             @RequestParam(required = false) String status,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                             @RequestParam(required = false) Integer size) {
+        return conditional.okList(Route.EVENTS).body(eventService.searchEvents(q, status, from, to, size));
     }
 
+    // If-None-Match / If-Modified-Since are checked against the version before the event is read
     @GetMapping("/{id}")
-    public Event getEventById(@PathVariable String id) {
-        return eventRepository.findById(id).orElse(null);
+    public ResponseEntity<Event> getEventById(@PathVariable String id, HttpServletRequest request) {
+        ResponseEntity<Event> notModified = conditional.notModified(Route.EVENTS, request, () -> versions.event(id));
+        return notModified != null ? notModified : conditional.ok(Route.EVENTS, eventService.getEventById(id));
     }
 
     @PostMapping
     public Event createEvent(@RequestBody Event event) {
-        return eventRepository.save(event);
+        return eventService.createEvent(event);
     }
 
     @PutMapping("/{id}")
     public Event updateEvent(@PathVariable String id, @RequestBody Event eventDetails) {
-        Event event = eventRepository.findById(id).orElseThrow();
-        event.setTitle(eventDetails.getTitle());
-        event.setEventType(eventDetails.getEventType());
-        event.setEventDate(eventDetails.getEventDate());
-        event.setBasePrice(eventDetails.getBasePrice());
-        event.setStatus(eventDetails.getStatus());
-        event.setVenue(eventDetails.getVenue());
-        return eventRepository.save(event);
+        return eventService.updateEvent(id, eventDetails);
     }
 
     @DeleteMapping("/{id}")
     public void deleteEvent(@PathVariable String id) {
-        eventRepository.deleteById(id);
+        eventService.deleteEvent(id);
     }
 }
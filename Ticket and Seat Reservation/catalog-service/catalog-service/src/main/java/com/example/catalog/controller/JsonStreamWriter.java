@@ -0,0 +1,41 @@
+package com.example.catalog.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Serializes a stream element by element straight into the response, as one
+// JSON array or as NDJSON when the client accepts application/x-ndjson.
+// Only the servlet output buffer is held; full buffers go out as chunks.
+final class JsonStreamWriter {
+
+    private JsonStreamWriter() {
+    }
+
+    static void write(Stream<?> values, String accept, ObjectMapper mapper, HttpServletResponse response)
+            throws IOException {
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            Iterator<?> it = values.iterator();
+            if (ndjson) {
+                while (it.hasNext()) {
+                    generator.writeObject(it.next());
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeStartArray();
+                while (it.hasNext()) {
+                    generator.writeObject(it.next());
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+}
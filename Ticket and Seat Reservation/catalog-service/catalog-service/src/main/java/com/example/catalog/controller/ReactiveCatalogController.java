@@ -0,0 +1,77 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.dto.SeatView;
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Venue;
+import com.example.catalog.exception.NotFoundException;
+import com.example.catalog.service.ReactiveCatalogService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Non-blocking twins of the catalog read endpoints. The servlet thread is
+// released while Mongo works. Lists are streamed as NDJSON with backpressure
+// when the client sends Accept: application/x-ndjson, and collected into a
+// JSON array otherwise.
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveCatalogController {
+
+    private final ReactiveCatalogService catalogService;
+
+    public ReactiveCatalogController(ReactiveCatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    // A page is bounded by catalog.events.max-page-size, so it is returned whole with the cursor header
+    @GetMapping("/events")
+    public Mono<ResponseEntity<List<Event>>> getEvents(@RequestParam(required = false) String city,
+                                                       @RequestParam(required = false) String type,
+                                                       @RequestParam(required = false) String status,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer size) {
+        return catalogService.getFilteredEvents(city, type, status, after, size)
+                .collectList()
+                .map(events -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (!events.isEmpty() && events.size() == catalogService.pageSize(size)) {
+                        response.header(EventController.NEXT_CURSOR_HEADER, events.get(events.size() - 1).getEventId());
+                    }
+                    return response.body(events);
+                });
+    }
+
+    @GetMapping("/events/{id}")
+    public Mono<Event> getEventById(@PathVariable String id) {
+        return catalogService.getEventById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Event not found: " + id)));
+    }
+
+    @GetMapping(value = "/seats/event/{eventId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<SeatView> getSeatsByEvent(@PathVariable String eventId) {
+        return catalogService.getSeatViewsByEventId(eventId);
+    }
+
+    @GetMapping(value = "/venues",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Venue> getAllVenues() {
+        return catalogService.getAllVenues();
+    }
+
+    @GetMapping("/venues/{id}")
+    public Mono<Venue> getVenueById(@PathVariable String id) {
+        return catalogService.getVenueById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Venue not found: " + id)));
+    }
+
+    @GetMapping(value = "/venues/city/{city}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Venue> getVenuesByCity(@PathVariable String city) {
+        return catalogService.getVenuesByCity(city);
+    }
+}
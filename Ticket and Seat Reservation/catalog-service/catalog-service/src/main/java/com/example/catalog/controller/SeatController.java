@@ -1,64 +1,112 @@
 package com.example.catalog.controller;
 
+import com.example.catalog.controller.ConditionalResponses.Route;
+import com.example.catalog.dto.SeatView;
 import com.example.catalog.entity.Seat;
 import com.example.catalog.repository.SeatRepository;
+import com.example.catalog.service.CatalogVersions;
+import com.example.catalog.service.SeatService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.*;
-import java.util.stream.Collectors;
+
+import java.io.IOException;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/seats")
 public class SeatController {
 
     private final SeatRepository seatRepository;
+    private final SeatService seatService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions versions;
+    private final ConditionalResponses conditional;
 
-    public SeatController(SeatRepository seatRepository) {
+    public SeatController(SeatRepository seatRepository, SeatService seatService, ObjectMapper objectMapper,
+                          CatalogVersions versions, ConditionalResponses conditional) {
         this.seatRepository = seatRepository;
+        this.seatService = seatService;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.conditional = conditional;
     }
 
+    // Seat lists are streamed from a Mongo cursor as a JSON array, or as NDJSON with
+    // Accept: application/x-ndjson. One response holds at most catalog.seats.max-results
+    // seats (fewer with ?size=); when more remain, X-Next-Cursor carries the token to
+    // pass back as "cursor" for the next page.
     @GetMapping
-    public List<Seat> getAllSeats() {
-        return seatRepository.findAll();
+    public void getAllSeats(@RequestParam(required = false) String cursor,
+                            @RequestParam(required = false) Integer size,
+                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException {
+        int pageSize = seatService.pageSize(size);
+        String after = SeatCursor.decode("", cursor);
+        String pageEnd = nextCursor(response, "", null, after, pageSize);
+        conditional.applyCacheControl(Route.SEATS, response);
+        try (Stream<Seat> seats = seatService.streamSeats(after, pageEnd, pageSize)) {
+            JsonStreamWriter.write(seats, accept, objectMapper, response);
+        }
     }
 
+    // Availability reaches the seat document (and its version) with the next inventory flush
     @GetMapping("/{id}")
-    public Seat getSeatById(@PathVariable String id) {
-        return seatRepository.findById(id).orElse(null);
+    public ResponseEntity<Seat> getSeatById(@PathVariable String id, HttpServletRequest request) {
+        ResponseEntity<Seat> notModified = conditional.notModified(Route.SEATS, request, () -> versions.seat(id));
+        return notModified != null ? notModified : conditional.ok(Route.SEATS, seatRepository.findById(id).orElse(null));
     }
 
     @GetMapping("/event/{eventId}")
-    public List<Seat> getSeatsByEvent(@PathVariable String eventId) {
-        return seatRepository.findByEventEventId(eventId);
+    public void getSeatsByEvent(@PathVariable String eventId,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer size,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                HttpServletResponse response) throws IOException {
+        int pageSize = seatService.pageSize(size);
+        String after = SeatCursor.decode(eventId, cursor);
+        String pageEnd = nextCursor(response, eventId, eventId, after, pageSize);
+        conditional.applyCacheControl(Route.SEATS, response);
+        try (Stream<SeatView> seats = seatService.streamSeatViewsByEventId(eventId, after, pageEnd, pageSize)) {
+            JsonStreamWriter.write(seats, accept, objectMapper, response);
+        }
     }
 
     // ✅ NEW ENDPOINT – used by other services (Python/.NET)
     @GetMapping("/info")
-    public List<Seat> getSeatsInfo(@RequestParam("seatIds") String seatIds) {
-    List<String> ids = Arrays.stream(seatIds.split(","))
-        .map(String::trim)
-        .filter(s -> !s.isEmpty())
-        .collect(Collectors.toList());
-    return seatRepository.findAllById(ids);
+    public void getSeatsInfo(@RequestParam("seatIds") String seatIds,
+                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                             HttpServletResponse response) throws IOException {
+        conditional.applyCacheControl(Route.SEATS, response);
+        try (Stream<SeatView> seats = seatService.streamSeatViewsByIds(SeatService.parseSeatIds(seatIds))) {
+            JsonStreamWriter.write(seats, accept, objectMapper, response);
+        }
     }
 
     @PostMapping
     public Seat createSeat(@RequestBody Seat seat) {
-        return seatRepository.save(seat);
+        return seatService.createSeat(seat);
     }
 
     @PutMapping("/{id}")
     public Seat updateSeat(@PathVariable String id, @RequestBody Seat seatDetails) {
-        Seat seat = seatRepository.findById(id).orElseThrow();
-        seat.setSection(seatDetails.getSection());
-        seat.setSeatRow(seatDetails.getSeatRow());
-        seat.setSeatNumber(seatDetails.getSeatNumber());
-        seat.setPrice(seatDetails.getPrice());
-        seat.setEvent(seatDetails.getEvent());
-        return seatRepository.save(seat);
+        return seatService.updateSeat(id, seatDetails);
     }
 
     @DeleteMapping("/{id}")
     public void deleteSeat(@PathVariable String id) {
-        seatRepository.deleteById(id);
+        seatService.deleteSeat(id);
+    }
+
+    // Sets X-Next-Cursor when seats follow this page and returns the page's last id
+    private String nextCursor(HttpServletResponse response, String scope, String eventId, String after, int pageSize) {
+        String pageEnd = seatService.nextPageAfter(eventId, after, pageSize);
+        if (pageEnd != null) {
+            response.setHeader(EventController.NEXT_CURSOR_HEADER, SeatCursor.encode(scope, pageEnd));
+        }
+        return pageEnd;
     }
 }
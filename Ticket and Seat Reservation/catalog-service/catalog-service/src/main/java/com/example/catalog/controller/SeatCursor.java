@@ -0,0 +1,37 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for seat pages: base64url of "<scope>\n<last seat id>".
+// The scope (the event id, empty for all seats) keeps a token to the listing that issued it.
+final class SeatCursor {
+
+    private SeatCursor() {
+    }
+
+    static String encode(String scope, String lastSeatId) {
+        byte[] raw = (scope + '\n' + lastSeatId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // The last seat id of the previous page, or null for the first page
+    static String decode(String scope, String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        int newline = raw.indexOf('\n');
+        if (newline < 0 || newline == raw.length() - 1 || !raw.substring(0, newline).equals(scope)) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return raw.substring(newline + 1);
+    }
+}
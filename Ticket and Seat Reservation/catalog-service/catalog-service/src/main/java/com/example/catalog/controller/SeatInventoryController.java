@@ -0,0 +1,52 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.dto.InventorySummary;
+import com.example.catalog.dto.SeatMapView;
+import com.example.catalog.service.SeatInventory;
+import com.example.catalog.service.SeatInventoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory/{eventId}")
+public class SeatInventoryController {
+
+    private final SeatInventoryService inventoryService;
+
+    public SeatInventoryController(SeatInventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @GetMapping
+    public InventorySummary getSummary(@PathVariable String eventId) {
+        SeatInventory inventory = inventoryService.getInventory(eventId);
+        return new InventorySummary(eventId, inventory.size(), inventory.availableCount(),
+                inventory.availableBySection());
+    }
+
+    @GetMapping("/sections/{section}")
+    public int getAvailableInSection(@PathVariable String eventId, @PathVariable String section) {
+        return inventoryService.getInventory(eventId).availableCount(section);
+    }
+
+    @GetMapping("/map")
+    public SeatMapView getSeatMap(@PathVariable String eventId) {
+        SeatInventory inventory = inventoryService.getInventory(eventId);
+        return SeatMapView.of(eventId, inventory.seatIds(), inventory.snapshot());
+    }
+
+    @PostMapping("/seats/{seatId}/reserve")
+    public ResponseEntity<Void> reserve(@PathVariable String eventId, @PathVariable String seatId) {
+        return inventoryService.reserve(eventId, seatId)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @PostMapping("/seats/{seatId}/release")
+    public ResponseEntity<Void> release(@PathVariable String eventId, @PathVariable String seatId) {
+        return inventoryService.release(eventId, seatId)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
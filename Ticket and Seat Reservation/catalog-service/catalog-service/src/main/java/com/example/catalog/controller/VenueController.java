@@ -1,7 +1,12 @@
 package com.example.catalog.controller;
 
+import com.example.catalog.controller.ConditionalResponses.Route;
 import com.example.catalog.entity.Venue;
 import com.example.catalog.repository.VenueRepository;
+import com.example.catalog.service.CatalogVersions;
+import com.example.catalog.service.VenueService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -10,40 +15,46 @@ import java.util.List;
 public class VenueController {
 
     private final VenueRepository venueRepository;
+    private final VenueService venueService;
+    private final CatalogVersions versions;
+    private final ConditionalResponses conditional;
 
-    public VenueController(VenueRepository venueRepository) {
+    public VenueController(VenueRepository venueRepository, VenueService venueService,
+                           CatalogVersions versions, ConditionalResponses conditional) {
         this.venueRepository = venueRepository;
+        this.venueService = venueService;
+        this.versions = versions;
+        this.conditional = conditional;
     }
 
     @GetMapping
-    public List<Venue> getAllVenues() { return venueRepository.findAll(); }
+    public ResponseEntity<List<Venue>> getAllVenues() {
+        return conditional.okList(Route.VENUES).body(venueRepository.findAll());
+    }
 
     @GetMapping("/{id}")
-       public Venue getVenueById(@PathVariable String id) {
-           return venueRepository.findById(id).orElse(null);
-       }
+    public ResponseEntity<Venue> getVenueById(@PathVariable String id, HttpServletRequest request) {
+        ResponseEntity<Venue> notModified = conditional.notModified(Route.VENUES, request, () -> versions.venue(id));
+        return notModified != null ? notModified : conditional.ok(Route.VENUES, venueService.getVenueById(id));
+    }
 
     @GetMapping("/city/{city}")
-    public List<Venue> getVenuesByCity(@PathVariable String city) {
-        return venueRepository.findByCityIgnoreCase(city);
+    public ResponseEntity<List<Venue>> getVenuesByCity(@PathVariable String city) {
+        return conditional.okList(Route.VENUES).body(venueService.getVenuesByCity(city));
     }
 
     @PostMapping
     public Venue createVenue(@RequestBody Venue venue) {
-        return venueRepository.save(venue);
+        return venueService.createVenue(venue);
     }
 
     @PutMapping("/{id}")
        public Venue updateVenue(@PathVariable String id, @RequestBody Venue venueDetails) {
-           Venue venue = venueRepository.findById(id).orElseThrow();
-        venue.setName(venueDetails.getName());
-        venue.setCity(venueDetails.getCity());
-        venue.setCapacity(venueDetails.getCapacity());
-        return venueRepository.save(venue);
+        return venueService.updateVenue(id, venueDetails);
     }
 
     @DeleteMapping("/{id}")
        public void deleteVenue(@PathVariable String id) {
-           venueRepository.deleteById(id);
+           venueService.deleteVenue(id);
        }
 }
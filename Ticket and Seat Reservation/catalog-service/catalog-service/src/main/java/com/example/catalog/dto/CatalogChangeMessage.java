@@ -0,0 +1,20 @@
+package com.example.catalog.dto;
+
+import com.example.catalog.entity.CatalogChange;
+
+import java.time.Instant;
+
+// One catalog change as POSTed to change feed subscribers, in batches of a JSON array
+public record CatalogChangeMessage(String id,
+                                   CatalogChange.Entity entity,
+                                   CatalogChange.Type type,
+                                   String entityId,
+                                   String eventId,
+                                   Long version,
+                                   Instant occurredAt) {
+
+    public static CatalogChangeMessage of(CatalogChange change) {
+        return new CatalogChangeMessage(change.getId(), change.getEntity(), change.getType(), change.getEntityId(),
+                change.getEventId(), change.getVersion(), change.getOccurredAt());
+    }
+}
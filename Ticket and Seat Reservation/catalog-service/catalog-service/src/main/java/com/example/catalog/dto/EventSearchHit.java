@@ -0,0 +1,15 @@
+package com.example.catalog.dto;
+
+import com.example.catalog.entity.Status;
+
+import java.time.LocalDateTime;
+
+// One ranked event search result, served from the in-memory index without a Mongo read
+public record EventSearchHit(String eventId,
+                             String title,
+                             String eventType,
+                             String venueName,
+                             String venueCity,
+                             LocalDateTime eventDate,
+                             Status status,
+                             int score) {}
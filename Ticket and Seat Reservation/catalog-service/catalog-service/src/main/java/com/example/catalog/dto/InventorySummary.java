@@ -0,0 +1,9 @@
+package com.example.catalog.dto;
+
+import java.util.Map;
+
+// Free-seat counts for one event, overall and per section
+public record InventorySummary(String eventId,
+                               int totalSeats,
+                               int availableSeats,
+                               Map<String, Integer> availableBySection) {}
@@ -0,0 +1,21 @@
+package com.example.catalog.dto;
+
+import java.util.Base64;
+import java.util.List;
+
+// Seat map for rendering: seatIds[i] is free when bit i of availability is set.
+// availability is base64 of the bitset bytes (bit i lives in byte i / 8 at position i % 8),
+// a string so JavaScript clients do not lose bits to 53-bit number precision.
+public record SeatMapView(String eventId,
+                          List<String> seatIds,
+                          String availability) {
+
+    // From availability words as returned by SeatInventory.snapshot (bit i in word i / 64)
+    public static SeatMapView of(String eventId, List<String> seatIds, long[] words) {
+        byte[] bytes = new byte[(seatIds.size() + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return new SeatMapView(eventId, seatIds, Base64.getEncoder().encodeToString(bytes));
+    }
+}
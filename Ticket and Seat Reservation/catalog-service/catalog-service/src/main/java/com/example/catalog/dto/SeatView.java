@@ -0,0 +1,11 @@
+package com.example.catalog.dto;
+
+// Read model for seat listings: the lean seat plus the event/venue labels the UI shows
+public record SeatView(String seatId,
+                       String eventId,
+                       String eventTitle,
+                       String venueName,
+                       String section,
+                       String seatRow,
+                       String seatNumber,
+                       double price) {}
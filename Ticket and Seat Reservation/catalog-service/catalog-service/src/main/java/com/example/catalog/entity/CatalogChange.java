@@ -0,0 +1,93 @@
+package com.example.catalog.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Outbox record of one event/venue/seat write, delivered to subscribers by CatalogChangeDispatcher
+@Document(collection = "catalog_outbox")
+// the dispatcher reads undelivered records in seq order
+@CompoundIndex(name = "pending_seq", def = "{'pending': 1, 'seq': 1}")
+public class CatalogChange {
+
+    public enum Entity { EVENT, VENUE, SEAT }
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    private String id;
+
+    // server-assigned by CatalogOutbox from the catalog_outbox_seq counter; ascending in write order
+    private Long seq;
+
+    private Entity entity;
+    private Type type;
+    private String entityId;
+
+    // the event the change belongs to (the event itself, or the seat's event); null for venues
+    private String eventId;
+
+    // entity version after the write, null for deletes; lets subscribers drop stale changes
+    private Long version;
+
+    private Instant occurredAt;
+
+    private boolean pending = true;
+
+    // subscribers that acknowledged the change
+    private List<String> deliveredTo = new ArrayList<>();
+
+    // set once every subscriber has it; delivered records expire a week later
+    @Indexed(expireAfter = "7d")
+    private Instant deliveredAt;
+
+    public CatalogChange() {
+    }
+
+    public CatalogChange(Entity entity, Type type, String entityId, String eventId, Long version) {
+        this.entity = entity;
+        this.type = type;
+        this.entityId = entityId;
+        this.eventId = eventId;
+        this.version = version;
+        this.occurredAt = Instant.now();
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Entity getEntity() { return entity; }
+    public void setEntity(Entity entity) { this.entity = entity; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public String getEntityId() { return entityId; }
+    public void setEntityId(String entityId) { this.entityId = entityId; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+
+    public boolean isPending() { return pending; }
+    public void setPending(boolean pending) { this.pending = pending; }
+
+    public List<String> getDeliveredTo() { return deliveredTo; }
+    public void setDeliveredTo(List<String> deliveredTo) { this.deliveredTo = deliveredTo; }
+
+    public Instant getDeliveredAt() { return deliveredAt; }
+    public void setDeliveredAt(Instant deliveredAt) { this.deliveredAt = deliveredAt; }
+}
@@ -1,26 +1,60 @@
 package com.example.catalog.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Locale;
 
 @Document(collection = "events")
-public class Event {
+// Filter indexes for /api/events; on the normalized keys, so city/type lookups are plain index seeks
+@CompoundIndexes({
+        @CompoundIndex(name = "venueCityKey_status_id", def = "{'venueCityKey': 1, 'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "eventTypeKey_status_id", def = "{'eventTypeKey': 1, 'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "status_eventId", def = "{'status': 1, '_id': 1}")
+})
+public class Event implements Versioned {
 
     @Id
     private String eventId;
 
-    private Venue venue;
+    @Indexed
+    private String venueId;
+
+    // denormalized from the venue so list views and city filters need no join
+    private String venueName;
+    private String venueCity;
+
+    // Venue.cityKey of venueCity, kept in step by setVenueCity; the city filter queries only this
+    @JsonIgnore
+    private String venueCityKey;
 
     private String title;
     private String eventType;
+
+    // typeKey of eventType, kept in step by setEventType; the type filter queries only this
+    @JsonIgnore
+    private String eventTypeKey;
     private LocalDateTime eventDate;
     private double basePrice;
 
     private Status status;
 
-    private List<Seat> seats;
+    // bumped on every write, including venue renames copied onto the event; the HTTP ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @LastModifiedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
 
     // Getters and Setters
     public String getEventId() {
@@ -31,12 +65,34 @@ public class Event {
         this.eventId = eventId;
     }
 
-    public Venue getVenue() {
-        return venue;
+    public String getVenueId() {
+        return venueId;
+    }
+
+    public void setVenueId(String venueId) {
+        this.venueId = venueId;
+    }
+
+    public String getVenueName() {
+        return venueName;
+    }
+
+    public void setVenueName(String venueName) {
+        this.venueName = venueName;
+    }
+
+    public String getVenueCity() {
+        return venueCity;
     }
 
-    public void setVenue(Venue venue) {
-        this.venue = venue;
+    public void setVenueCity(String venueCity) {
+        this.venueCity = venueCity;
+        this.venueCityKey = Venue.cityKey(venueCity);
+    }
+
+    @JsonIgnore
+    public String getVenueCityKey() {
+        return venueCityKey;
     }
 
     public String getTitle() {
@@ -53,6 +109,12 @@ public class Event {
 
     public void setEventType(String eventType) {
         this.eventType = eventType;
+        this.eventTypeKey = typeKey(eventType);
+    }
+
+    @JsonIgnore
+    public String getEventTypeKey() {
+        return eventTypeKey;
     }
 
     public LocalDateTime getEventDate() {
@@ -79,11 +141,45 @@ public class Event {
         this.status = status;
     }
 
-    public List<Seat> getSeats() {
-        return seats;
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    // Field-by-field copy, so a cached event handed to a caller can be changed without touching the cache
+    public Event copy() {
+        Event copy = new Event();
+        copy.eventId = eventId;
+        copy.venueId = venueId;
+        copy.venueName = venueName;
+        copy.venueCity = venueCity;
+        copy.venueCityKey = venueCityKey;
+        copy.title = title;
+        copy.eventType = eventType;
+        copy.eventTypeKey = eventTypeKey;
+        copy.eventDate = eventDate;
+        copy.basePrice = basePrice;
+        copy.status = status;
+        copy.version = version;
+        copy.lastModified = lastModified;
+        return copy;
     }
 
-    public void setSeats(List<Seat> seats) {
-        this.seats = seats;
+    // The normalized form stored in eventTypeKey; use it for every type lookup
+    public static String typeKey(String eventType) {
+        return eventType == null ? null : eventType.trim().toLowerCase(Locale.ROOT);
     }
 }
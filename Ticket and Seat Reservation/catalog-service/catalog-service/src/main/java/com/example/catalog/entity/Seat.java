@@ -1,15 +1,24 @@
 package com.example.catalog.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document(collection = "seats")
-public class Seat {
+// serves eventId lookups and the id-ordered seat pages of one event
+@CompoundIndex(name = "eventId_seatId", def = "{'eventId': 1, '_id': 1}")
+public class Seat implements Versioned {
 
     @Id
     private String seatId;
 
-    private Event event;
+    // reference to events._id; read views resolve the title via SeatService
+    private String eventId;
 
     private String section;
 
@@ -18,6 +27,18 @@ public class Seat {
     private String seatNumber;
     private double price;
 
+    // maintained by SeatInventoryService; documents without the field count as available
+    private boolean available = true;
+
+    // bumped on every write, including availability flushed by SeatInventoryService; the HTTP ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @LastModifiedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     // Getters and Setters
     public String getSeatId() {
         return seatId;
@@ -27,12 +48,12 @@ public class Seat {
         this.seatId = seatId;
     }
 
-    public Event getEvent() {
-        return event;
+    public String getEventId() {
+        return eventId;
     }
 
-    public void setEvent(Event event) {
-        this.event = event;
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
     }
 
     public String getSection() {
@@ -66,4 +87,30 @@ public class Seat {
     public void setPrice(double price) {
         this.price = price;
     }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -1,11 +1,18 @@
 package com.example.catalog.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import java.util.List;
+
+import java.time.Instant;
+import java.util.Locale;
 
 @Document(collection = "venues")
-public class Venue {
+public class Venue implements Versioned {
 
     @Id
     private String venueId;
@@ -14,7 +21,19 @@ public class Venue {
     private String city;
     private int capacity;
 
-    private List<Event> events;
+    // trimmed, lower-cased city kept in step by setCity so city lookups are plain index seeks
+    @Indexed
+    @JsonIgnore
+    private String cityKey;
+
+    // bumped on every write; the HTTP ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @LastModifiedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
 
     // Getters and Setters
     public String getVenueId() { return venueId; }
@@ -24,11 +43,40 @@ public class Venue {
     public void setName(String name) { this.name = name; }
 
     public String getCity() { return city; }
-    public void setCity(String city) { this.city = city; }
+    public void setCity(String city) {
+        this.city = city;
+        this.cityKey = cityKey(city);
+    }
+
+    @JsonIgnore
+    public String getCityKey() { return cityKey; }
 
     public int getCapacity() { return capacity; }
     public void setCapacity(int capacity) { this.capacity = capacity; }
 
-    public List<Event> getEvents() { return events; }
-    public void setEvents(List<Event> events) { this.events = events; }
+    @Override
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public Instant getLastModified() { return lastModified; }
+    public void setLastModified(Instant lastModified) { this.lastModified = lastModified; }
+
+    // Field-by-field copy, so a cached venue handed to a caller can be changed without touching the cache
+    public Venue copy() {
+        Venue copy = new Venue();
+        copy.venueId = venueId;
+        copy.name = name;
+        copy.city = city;
+        copy.capacity = capacity;
+        copy.cityKey = cityKey;
+        copy.version = version;
+        copy.lastModified = lastModified;
+        return copy;
+    }
+
+    // The normalized form stored in cityKey; use it for every city lookup
+    public static String cityKey(String city) {
+        return city == null ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.catalog.entity;
+
+import java.time.Instant;
+
+// Catalog documents whose version and last write time back the HTTP ETag and Last-Modified
+public interface Versioned {
+
+    Long getVersion();
+
+    Instant getLastModified();
+}
@@ -0,0 +1,105 @@
+package com.example.catalog.migration;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.catalog.entity.Status;
+import com.example.catalog.entity.Venue;
+import com.example.shared.csvimport.BulkCsvLoader;
+import com.example.shared.csvimport.CsvImportJob;
+import com.example.shared.csvimport.CsvRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulk import of venues, events and seats from CSV (the seed-data/etsr_*.csv
+ * layout) into the catalog collections. A separate main class that imports
+ * and exits; run with --catalog.import.dir=../seed-data.
+ * Files missing from the directory are skipped, so a layout-only import can
+ * ship just etsr_venues.csv and etsr_seats.csv.
+ */
+@SpringBootConfiguration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@Profile(CsvImportJob.PROFILE)
+public class CatalogCsvImport extends CsvImportJob {
+
+    public CatalogCsvImport(MongoTemplate mongoTemplate,
+                            @Value("${catalog.import.dir}") String dir,
+                            @Value("${catalog.import.batch-size:1000}") int batchSize,
+                            @Value("${catalog.import.parallelism:4}") int parallelism,
+                            @Value("${catalog.import.restart:false}") boolean restart) {
+        super(mongoTemplate, dir, batchSize, parallelism, restart);
+    }
+
+    public static void main(String[] args) {
+        CsvImportJob.run(CatalogCsvImport.class, args);
+    }
+
+    @Override
+    protected void importFiles(BulkCsvLoader loader) throws IOException, InterruptedException {
+        Instant now = Instant.now();
+        load(loader, "etsr_venues.csv", Venue.class, (bulk, row) -> bulk.insert(toVenue(row, now)));
+        // events carry the venue's name and city; venues are few, so read them all once
+        Map<String, Venue> venues = new HashMap<>();
+        mongoTemplate.find(new Query(), Venue.class).forEach(venue -> venues.put(venue.getVenueId(), venue));
+        load(loader, "etsr_events.csv", Event.class, (bulk, row) -> bulk.insert(toEvent(row, venues, now)));
+        load(loader, "etsr_seats.csv", Seat.class, (bulk, row) -> bulk.insert(toSeat(row, now)));
+    }
+
+    static Venue toVenue(CsvRow row, Instant now) {
+        Venue venue = new Venue();
+        venue.setVenueId(row.get("venue_id"));
+        venue.setName(row.get("name"));
+        venue.setCity(row.get("city"));
+        venue.setCapacity(row.getInt("capacity"));
+        venue.setVersion(0L);
+        venue.setLastModified(now);
+        return venue;
+    }
+
+    static Event toEvent(CsvRow row, Map<String, Venue> venues, Instant now) {
+        Event event = new Event();
+        event.setEventId(row.get("event_id"));
+        event.setVenueId(row.get("venue_id"));
+        Venue venue = venues.get(event.getVenueId());
+        event.setVenueName(venue != null ? venue.getName() : null);
+        event.setVenueCity(venue != null ? venue.getCity() : null);
+        event.setTitle(row.get("title"));
+        event.setEventType(row.get("event_type"));
+        event.setEventDate(row.getTimestamp("event_date"));
+        event.setBasePrice(row.getDouble("base_price"));
+        event.setStatus(toStatus(row.get("status")));
+        event.setVersion(0L);
+        event.setLastModified(now);
+        return event;
+    }
+
+    static Seat toSeat(CsvRow row, Instant now) {
+        Seat seat = new Seat();
+        seat.setSeatId(row.get("seat_id"));
+        seat.setEventId(row.get("event_id"));
+        seat.setSection(row.get("section"));
+        seat.setSeatRow(row.get("row"));
+        seat.setSeatNumber(row.get("seat_number"));
+        seat.setPrice(row.getDouble("price"));
+        seat.setVersion(0L);
+        seat.setLastModified(now);
+        return seat;
+    }
+
+    // The exports also use SCHEDULED and ON_SALE, which are both still bookable here
+    static Status toStatus(String value) {
+        return switch (value.toUpperCase()) {
+            case "SCHEDULED", "ON_SALE" -> Status.AVAILABLE;
+            default -> Status.valueOf(value.toUpperCase());
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.catalog.migration;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Venue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fills in the normalized keys on documents written before they existed, so
+ * lookups (which only query the keys) find them: cityKey on venues, and
+ * venueCityKey and eventTypeKey on events. The keys are computed in Java with
+ * Venue.cityKey and Event.typeKey so they match what the setters store. Only
+ * matches documents without a key, so re-running is a no-op. The collated
+ * event indexes the keys replace are dropped. Runs after LeanModelMigration
+ * and VersionBackfill, so events rewritten by the migration get their keys too.
+ */
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "catalog.migration.city-key.enabled", havingValue = "true", matchIfMissing = true)
+public class CityKeyBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CityKeyBackfill.class);
+
+    // case-insensitive (collated) filter indexes from before the keys
+    static final List<String> COLLATED_EVENT_INDEXES = List.of("venueCity_status_id", "type_status_id", "status_id");
+
+    private final MongoTemplate mongoTemplate;
+
+    public CityKeyBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill(Venue.class, "city", "cityKey", Venue::cityKey);
+        backfill(Event.class, "venueCity", "venueCityKey", Venue::cityKey);
+        backfill(Event.class, "eventType", "eventTypeKey", Event::typeKey);
+
+        List<String> existing = mongoTemplate.indexOps(Event.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(COLLATED_EVENT_INDEXES::contains)
+                .toList();
+        existing.forEach(mongoTemplate.indexOps(Event.class)::dropIndex);
+        if (!existing.isEmpty()) {
+            log.info("Dropped collated event indexes {}", existing);
+        }
+    }
+
+    private void backfill(Class<?> entity, String source, String key, UnaryOperator<String> normalize) {
+        Query missing = Query.query(Criteria.where(key).exists(false).and(source).ne(null));
+        missing.fields().include(source);
+        String collection = mongoTemplate.getCollectionName(entity);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        int pending = 0;
+        for (Document document : mongoTemplate.find(missing, Document.class, collection)) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(document.get("_id"))),
+                    new Update().set(key, normalize.apply(document.getString(source))));
+            pending++;
+        }
+        if (pending > 0) {
+            bulk.execute();
+            log.info("Set {} on {} existing {}", key, pending, collection);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.catalog.migration;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.catalog.entity.Venue;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off rewrite of catalog documents from the old embedded graph
+ * (seat.event, event.venue, event.seats, venue.events) to id references.
+ * Each step only matches documents still in the old shape, so it is safe to re-run.
+ * Enable with catalog.migration.lean-model.enabled=true. Runs first of the
+ * startup migrations, so the backfills see the rewritten documents.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "catalog.migration.lean-model.enabled", havingValue = "true")
+public class LeanModelMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LeanModelMigration.class);
+
+    // index on the old embedded venue.city path from before the lean model
+    static final String LEGACY_CITY_INDEX = "city_status_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    public LeanModelMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        UpdateResult seats = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("event").exists(true)),
+                AggregationUpdate.update()
+                        .set("eventId").toValue(ConvertOperators.valueOf("event._id").convertToString())
+                        .unset("event"),
+                Seat.class);
+
+        // venue copy first, so events that only embed seats keep their venue fields
+        UpdateResult events = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("venue").exists(true)),
+                AggregationUpdate.update()
+                        .set("venueId").toValue(ConvertOperators.valueOf("venue._id").convertToString())
+                        .set("venueName").toValueOf("venue.name")
+                        .set("venueCity").toValueOf("venue.city")
+                        .unset("venue", "seats"),
+                Event.class);
+        UpdateResult eventSeats = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("seats").exists(true)),
+                AggregationUpdate.update().unset("seats"),
+                Event.class);
+
+        UpdateResult venues = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("events").exists(true)),
+                AggregationUpdate.update().unset("events"),
+                Venue.class);
+
+        boolean legacyIndex = mongoTemplate.indexOps(Event.class).getIndexInfo().stream()
+                .anyMatch(index -> LEGACY_CITY_INDEX.equals(index.getName()));
+        if (legacyIndex) {
+            mongoTemplate.indexOps(Event.class).dropIndex(LEGACY_CITY_INDEX);
+        }
+
+        log.info("Lean model migration: {} seats, {} events, {} venues rewritten, legacy index dropped={}",
+                seats.getModifiedCount(), events.getModifiedCount() + eventSeats.getModifiedCount(), venues.getModifiedCount(), legacyIndex);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.catalog.migration;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.catalog.entity.Venue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives events, venues and seats written before versioning a version of 0
+ * and a lastModified of now. Without it Spring Data treats a loaded document
+ * with no version as new and its next save fails as a duplicate insert.
+ * Only matches unversioned documents, so re-running is a no-op. Runs after
+ * LeanModelMigration, so documents it rewrites are versioned too.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "catalog.migration.versions.enabled", havingValue = "true", matchIfMissing = true)
+public class VersionBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public VersionBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (Class<?> entity : new Class<?>[]{Event.class, Venue.class, Seat.class}) {
+            long updated = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L).currentDate("lastModified"),
+                    entity).getModifiedCount();
+            if (updated > 0) {
+                log.info("Versioned {} existing {} documents", updated, mongoTemplate.getCollectionName(entity));
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    // Keyset page of events matching the optional filters, ordered by id
+    List<Event> findFiltered(String city, String eventType, Status status, String afterId, int limit);
+}
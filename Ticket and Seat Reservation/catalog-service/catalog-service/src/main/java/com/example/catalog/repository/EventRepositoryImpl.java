@@ -0,0 +1,40 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import com.example.catalog.entity.Venue;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public EventRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Event> findFiltered(String city, String eventType, Status status, String afterId, int limit) {
+        Query query = new Query();
+        if (city != null) {
+            query.addCriteria(Criteria.where("venueCityKey").is(Venue.cityKey(city)));
+        }
+        if (eventType != null) {
+            query.addCriteria(Criteria.where("eventTypeKey").is(Event.typeKey(eventType)));
+        }
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.limit(limit);
+        return mongoTemplate.find(query, Event.class);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking mirror of EventRepository, used by the /api/reactive read endpoints
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String>, ReactiveEventRepositoryCustom {
+
+    Flux<Event> findByStatus(Status status);
+
+}
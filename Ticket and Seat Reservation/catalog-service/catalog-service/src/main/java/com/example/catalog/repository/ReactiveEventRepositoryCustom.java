@@ -0,0 +1,11 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveEventRepositoryCustom {
+
+    // Same keyset page as EventRepositoryCustom.findFiltered, emitted as it is read
+    Flux<Event> findFiltered(String city, String eventType, Status status, String afterId, int limit);
+}
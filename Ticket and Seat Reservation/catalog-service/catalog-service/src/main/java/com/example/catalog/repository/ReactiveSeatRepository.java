@@ -0,0 +1,9 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Seat;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveSeatRepository extends ReactiveMongoRepository<Seat, String> {
+    Flux<Seat> findByEventId(String eventId);
+}
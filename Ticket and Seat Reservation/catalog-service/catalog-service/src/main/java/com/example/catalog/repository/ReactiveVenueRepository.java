@@ -0,0 +1,10 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Venue;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveVenueRepository extends ReactiveMongoRepository<Venue, String> {
+    // pass Venue.cityKey(city), not the raw city
+    Flux<Venue> findByCityKey(String cityKey);
+}
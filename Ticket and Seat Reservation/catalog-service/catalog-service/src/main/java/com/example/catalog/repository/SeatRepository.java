@@ -4,6 +4,6 @@ import com.example.catalog.entity.Seat;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
-public interface SeatRepository extends MongoRepository<Seat, String> {
-    List<Seat> findByEventEventId(String eventId);
+public interface SeatRepository extends MongoRepository<Seat, String>, SeatRepositoryCustom {
+    List<Seat> findByEventId(String eventId);
 }
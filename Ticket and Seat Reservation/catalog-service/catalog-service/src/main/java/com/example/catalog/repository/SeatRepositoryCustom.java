@@ -0,0 +1,18 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Seat;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public interface SeatRepositoryCustom {
+
+    // Seats ordered by id, optionally of one event, read lazily from a Mongo cursor.
+    // The page is (afterId, upToId]; without upToId it ends after limit seats. Close the stream.
+    Stream<Seat> streamPage(String eventId, String afterId, String upToId, int limit);
+
+    // Id of the last seat of a page of limit seats, or null when no seat follows it
+    String findPageEnd(String eventId, String afterId, int limit);
+
+    Stream<Seat> streamByIds(Collection<String> ids);
+}
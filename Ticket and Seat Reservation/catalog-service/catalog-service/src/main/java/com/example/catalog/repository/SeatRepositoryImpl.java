@@ -0,0 +1,67 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Seat;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class SeatRepositoryImpl implements SeatRepositoryCustom {
+
+    // Documents fetched per getMore; bounds what a stream holds in memory at once
+    static final int CURSOR_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public SeatRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Stream<Seat> streamPage(String eventId, String afterId, String upToId, int limit) {
+        Query query = pageQuery(eventId, afterId, upToId);
+        if (upToId == null) {
+            query.limit(limit);
+        }
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return mongoTemplate.stream(query, Seat.class);
+    }
+
+    @Override
+    public String findPageEnd(String eventId, String afterId, int limit) {
+        // index-only walk to the page's last id and one past it
+        Query query = pageQuery(eventId, afterId, null).skip(limit - 1L).limit(2);
+        query.fields().include("_id");
+        List<Seat> ends = mongoTemplate.find(query, Seat.class);
+        return ends.size() == 2 ? ends.get(0).getSeatId() : null;
+    }
+
+    @Override
+    public Stream<Seat> streamByIds(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return mongoTemplate.stream(query, Seat.class);
+    }
+
+    private static Query pageQuery(String eventId, String afterId, String upToId) {
+        Query query = new Query();
+        if (eventId != null) {
+            query.addCriteria(Criteria.where("eventId").is(eventId));
+        }
+        if (afterId != null || upToId != null) {
+            Criteria id = Criteria.where("_id");
+            if (afterId != null) {
+                id.gt(afterId);
+            }
+            if (upToId != null) {
+                id.lte(upToId);
+            }
+            query.addCriteria(id);
+        }
+        return query.with(Sort.by(Sort.Direction.ASC, "_id"));
+    }
+}
@@ -5,5 +5,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
 public interface VenueRepository extends MongoRepository<Venue, String> {
-    List<Venue> findByCityIgnoreCase(String city);
+    // pass Venue.cityKey(city), not the raw city
+    List<Venue> findByCityKey(String cityKey);
 }
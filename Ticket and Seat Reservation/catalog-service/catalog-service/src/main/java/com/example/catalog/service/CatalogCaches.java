@@ -0,0 +1,50 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import com.example.catalog.entity.Venue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Read caches shared by EventService and VenueService; each read gets its own copy of the cached documents
+@Component
+public class CatalogCaches {
+
+    final ReadThroughCache<String, Event> eventsById;
+    final ReadThroughCache<Status, List<Event>> eventsByStatus;
+    final ReadThroughCache<String, Venue> venuesById;
+    final ReadThroughCache<String, List<Venue>> venuesByCity;
+
+    public CatalogCaches(@Value("${catalog.cache.max-size:10000}") int maxSize,
+                         @Value("${catalog.cache.ttl-ms:60000}") long ttlMillis) {
+        this.eventsById = new ReadThroughCache<>("eventsById", maxSize, ttlMillis, Event::copy);
+        this.eventsByStatus = new ReadThroughCache<>("eventsByStatus", maxSize, ttlMillis,
+                events -> events.stream().map(Event::copy).toList());
+        this.venuesById = new ReadThroughCache<>("venuesById", maxSize, ttlMillis, Venue::copy);
+        this.venuesByCity = new ReadThroughCache<>("venuesByCity", maxSize, ttlMillis,
+                venues -> venues.stream().map(Venue::copy).toList());
+    }
+
+    // Event rows carry venue name/city, so any event change drops the event caches
+    void invalidateEvent(String eventId) {
+        eventsById.invalidate(eventId);
+        eventsByStatus.invalidateAll();
+    }
+
+    void invalidateAllEvents() {
+        eventsById.invalidateAll();
+        eventsByStatus.invalidateAll();
+    }
+
+    void invalidateVenue(String venueId) {
+        venuesById.invalidate(venueId);
+        venuesByCity.invalidateAll();
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(eventsById.stats(), eventsByStatus.stats(), venuesById.stats(), venuesByCity.stats());
+    }
+}
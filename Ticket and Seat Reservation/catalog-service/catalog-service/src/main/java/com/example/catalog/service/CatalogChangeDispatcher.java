@@ -0,0 +1,166 @@
+package com.example.catalog.service;
+
+import com.example.catalog.dto.CatalogChangeMessage;
+import com.example.catalog.entity.CatalogChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers catalog_outbox records to the subscriber URLs in
+ * catalog.outbox.subscribers. Each run POSTs every subscriber the pending
+ * records it has not acknowledged, in seq order, as JSON arrays of up to
+ * batch-size changes. A 2xx response adds the subscriber to the records'
+ * deliveredTo; anything else stops that subscriber until the next run, which
+ * resends the same batch. Delivery is at least once (subscribers must treat a
+ * repeated change as a no-op) and in seq order per subscriber, so the
+ * changes to one event arrive in the order they were made. Only the instance
+ * holding the catalog_outbox_lease document dispatches: each run claims or
+ * renews the lease, which lapses lease-ms after the holder stops renewing it,
+ * and a run stops sending once its lease is gone. Records every subscriber has
+ * are marked delivered and expire after a week. Deliveries are counted in
+ * catalog.outbox.delivered{subscriber,outcome} and the records still pending
+ * after a run are the catalog.outbox.pending gauge, reported by the lease
+ * holder (0 elsewhere, so the sum over instances is the backlog).
+ */
+@Component
+public class CatalogChangeDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeDispatcher.class);
+    private static final String LEASES = "catalog_outbox_lease";
+
+    private final MongoTemplate mongoTemplate;
+    private final RestTemplate http;
+    private final MeterRegistry registry;
+    private final List<String> subscribers;
+    private final int batchSize;
+    private final long leaseMillis;
+    // this instance's token in the lease document
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicLong pending = new AtomicLong();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public CatalogChangeDispatcher(MongoTemplate mongoTemplate, RestTemplateBuilder restTemplateBuilder,
+                                   MeterRegistry registry,
+                                   @Value("${catalog.outbox.subscribers:}") String subscribers,
+                                   @Value("${catalog.outbox.batch-size:500}") int batchSize,
+                                   @Value("${catalog.outbox.timeout-ms:2000}") int timeoutMillis,
+                                   @Value("${catalog.outbox.lease-ms:10000}") long leaseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMillis);
+        requestFactory.setReadTimeout(timeoutMillis);
+        this.http = restTemplateBuilder.requestFactory(() -> requestFactory).build();
+        this.registry = registry;
+        this.subscribers = Arrays.stream(subscribers.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        Gauge.builder("catalog.outbox.pending", pending, AtomicLong::get)
+                .description("Catalog changes not yet delivered to every subscriber")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.dispatch-interval-ms:500}")
+    public void dispatch() {
+        if (!holdLease()) {
+            pending.set(0);
+            return;
+        }
+        for (String subscriber : subscribers) {
+            if (!deliverPending(subscriber)) {
+                return; // lease lost mid-run; the new holder carries on
+            }
+        }
+
+        // nothing to wait for once every subscriber has a record (or there are no subscribers)
+        Query delivered = Query.query(subscribers.isEmpty()
+                ? Criteria.where("pending").is(true)
+                : Criteria.where("pending").is(true).and("deliveredTo").all(subscribers));
+        mongoTemplate.updateMulti(delivered, new Update().set("pending", false).currentDate("deliveredAt"),
+                CatalogChange.class);
+        pending.set(mongoTemplate.count(Query.query(Criteria.where("pending").is(true)), CatalogChange.class));
+    }
+
+    // Send the subscriber its pending records a batch at a time until none are left or a send fails;
+    // false if the lease was lost
+    private boolean deliverPending(String subscriber) {
+        while (true) {
+            Query query = Query.query(Criteria.where("pending").is(true).and("deliveredTo").ne(subscriber))
+                    .with(Sort.by(Sort.Direction.ASC, "seq", "_id"))
+                    .limit(batchSize);
+            List<CatalogChange> batch = mongoTemplate.find(query, CatalogChange.class);
+            if (batch.isEmpty()) {
+                return true;
+            }
+            try {
+                http.postForEntity(subscriber, batch.stream().map(CatalogChangeMessage::of).toList(), Void.class);
+            } catch (RestClientException e) {
+                log.warn("Could not deliver {} catalog changes to {}: {}", batch.size(), subscriber, e.getMessage());
+                count(subscriber, "failed", batch.size());
+                return true;
+            }
+            List<String> ids = batch.stream().map(CatalogChange::getId).toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                    new Update().addToSet("deliveredTo", subscriber), CatalogChange.class);
+            count(subscriber, "delivered", batch.size());
+            if (batch.size() < batchSize) {
+                return true;
+            }
+            if (!holdLease()) {
+                return false;
+            }
+        }
+    }
+
+    // Claims the lease if it is free or lapsed, or renews it if this instance holds it
+    private boolean holdLease() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is("dispatcher").orOperator(
+                Criteria.where("owner").is(owner),
+                Criteria.where("leaseUntil").lt(now)));
+        Update update = new Update().set("owner", owner).set("leaseUntil", now.plusMillis(leaseMillis));
+        try {
+            return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, LEASES) != null;
+        } catch (DuplicateKeyException e) {
+            return false; // held by another instance: the upsert tried to create it again
+        }
+    }
+
+    private void count(String subscriber, String outcome, int changes) {
+        counters.computeIfAbsent(subscriber + " " + outcome, key -> Counter.builder("catalog.outbox.delivered")
+                        .description("Catalog changes sent to change feed subscribers, by result")
+                        .tag("subscriber", subscriber)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment(changes);
+    }
+}
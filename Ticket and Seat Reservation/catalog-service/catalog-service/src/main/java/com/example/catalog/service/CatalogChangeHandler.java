@@ -0,0 +1,71 @@
+package com.example.catalog.service;
+
+import com.example.catalog.dto.CatalogChangeMessage;
+import com.example.catalog.entity.CatalogChange;
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Venue;
+import com.example.catalog.repository.EventRepository;
+import com.example.catalog.repository.VenueRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies change feed batches pushed by a catalog instance (this one included)
+ * to the local read caches, city index, search index and seat inventory, so
+ * writes made elsewhere show up without waiting for TTLs or the search index
+ * rebuild. Changes only name what changed; current state is re-read from
+ * Mongo, which makes repeated and out-of-date changes harmless.
+ */
+@Service
+public class CatalogChangeHandler {
+
+    private final EventRepository eventRepository;
+    private final VenueRepository venueRepository;
+    private final CatalogCaches caches;
+    private final VenueCityIndex cityIndex;
+    private final EventSearchIndex searchIndex;
+    private final SeatInventoryService inventoryService;
+
+    public CatalogChangeHandler(EventRepository eventRepository, VenueRepository venueRepository,
+                                CatalogCaches caches, VenueCityIndex cityIndex, EventSearchIndex searchIndex,
+                                SeatInventoryService inventoryService) {
+        this.eventRepository = eventRepository;
+        this.venueRepository = venueRepository;
+        this.caches = caches;
+        this.cityIndex = cityIndex;
+        this.searchIndex = searchIndex;
+        this.inventoryService = inventoryService;
+    }
+
+    public void apply(List<CatalogChangeMessage> changes) {
+        // a batch can hold several changes to one entity; re-reading it once covers them all
+        Map<String, CatalogChangeMessage> latest = new LinkedHashMap<>();
+        for (CatalogChangeMessage change : changes) {
+            latest.remove(change.entity() + ":" + change.entityId());
+            latest.put(change.entity() + ":" + change.entityId(), change);
+        }
+        latest.values().forEach(this::apply);
+    }
+
+    private void apply(CatalogChangeMessage change) {
+        if (change.entity() == CatalogChange.Entity.EVENT) {
+            caches.invalidateEvent(change.entityId());
+            eventRepository.findById(change.entityId()).ifPresentOrElse(searchIndex::put,
+                    () -> searchIndex.remove(change.entityId()));
+        } else if (change.entity() == CatalogChange.Entity.VENUE) {
+            caches.invalidateVenue(change.entityId());
+            caches.invalidateAllEvents();
+            cityIndex.invalidate();
+            Venue venue = venueRepository.findById(change.entityId()).orElse(null);
+            if (venue != null) {
+                searchIndex.updateVenue(venue.getVenueId(), venue.getName(), venue.getCity());
+            }
+        } else if (change.entity() == CatalogChange.Entity.SEAT) {
+            // the event's seat set changed; the next inventory read reloads it
+            inventoryService.invalidate(change.eventId());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.CatalogChange;
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.SessionSynchronization;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Records event, venue and seat writes in the catalog_outbox collection for
+ * {@link CatalogChangeDispatcher} to deliver. Services run the entity write
+ * and {@link #record} together through {@link #write}, which makes them one
+ * Mongo transaction when the server supports transactions (a replica set,
+ * including a single-node one, or a sharded cluster). On a standalone server
+ * the record is inserted right after the write, so a crash between the two
+ * can lose the change; subscribers still converge through their cache TTLs.
+ * Each record gets the next value of a counter document as its seq, the
+ * order the dispatcher delivers in. The counter is bumped outside the
+ * transaction, so concurrent writes do not conflict on it and an aborted
+ * write only leaves a gap. With transactions, a write to an entity cannot
+ * succeed until an earlier write to it has committed, so the records of one
+ * entity get ascending seqs in the order its writes were made. Two
+ * transactions writing the same document at once make one of them fail with
+ * a TransientTransactionError; that write is reported as an optimistic
+ * locking failure (409, retry the update) rather than retried here, since
+ * the work has already changed the entity it was given, e.g. its version.
+ */
+@Component
+public class CatalogOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogOutbox.class);
+    private static final String SEQUENCES = "catalog_outbox_seq";
+
+    private final MongoTemplate mongoTemplate;
+    // never joins a transaction
+    private final MongoTemplate sequenceTemplate;
+    private final TransactionTemplate transactions;
+    private final boolean transactionsEnabled;
+    // null until the server has been asked whether it supports transactions
+    private volatile Boolean transactional;
+
+    public CatalogOutbox(MongoTemplate mongoTemplate,
+                         @Value("${catalog.outbox.transactions.enabled:true}") boolean transactionsEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.sequenceTemplate = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        this.sequenceTemplate.setSessionSynchronization(SessionSynchronization.NEVER);
+        this.transactions = new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()));
+        this.transactionsEnabled = transactionsEnabled;
+    }
+
+    // Run an entity write and its record calls, in one transaction when available
+    public <T> T write(Supplier<T> work) {
+        if (!transactional()) {
+            return work.get();
+        }
+        try {
+            return transactions.execute(status -> work.get());
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) {
+                throw new OptimisticLockingFailureException("Write conflict with a concurrent catalog write", ex);
+            }
+            throw ex;
+        }
+    }
+
+    public void write(Runnable work) {
+        write(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Append a change; joins the transaction started by write, if any
+    public void record(CatalogChange.Entity entity, CatalogChange.Type type, String entityId, String eventId,
+                       Long version) {
+        CatalogChange change = new CatalogChange(entity, type, entityId, eventId, version);
+        change.setSeq(nextSeq());
+        mongoTemplate.insert(change);
+    }
+
+    private long nextSeq() {
+        Document counter = sequenceTemplate.findAndModify(Query.query(Criteria.where("_id").is("catalog_outbox")),
+                new Update().inc("value", 1L), FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, SEQUENCES);
+        return ((Number) counter.get("value")).longValue();
+    }
+
+    // The driver labels write conflicts with another transaction; Spring wraps the driver exception
+    private static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo
+                    && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean transactional() {
+        if (!transactionsEnabled) {
+            return false;
+        }
+        Boolean known = transactional;
+        if (known == null) {
+            try {
+                Document hello = mongoTemplate.executeCommand(new Document("isMaster", 1));
+                known = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            } catch (DataAccessException e) {
+                return false; // ask again on the next write
+            }
+            transactional = known;
+            if (!known) {
+                log.warn("Mongo is a standalone server; catalog outbox records are written without a transaction");
+            }
+        }
+        return known;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Seat;
+import com.example.catalog.entity.Venue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Current version of an event, venue or seat for conditional GETs, found
+ * without loading the document: from the read cache when the entity is
+ * there, otherwise by a Mongo projection of just version and lastModified.
+ */
+@Component
+public class CatalogVersions {
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogCaches caches;
+
+    public CatalogVersions(MongoTemplate mongoTemplate, CatalogCaches caches) {
+        this.mongoTemplate = mongoTemplate;
+        this.caches = caches;
+    }
+
+    public VersionStamp event(String id) {
+        Event cached = caches.eventsById.getIfPresent(id);
+        return cached != null ? VersionStamp.of(cached) : project(id, Event.class);
+    }
+
+    public VersionStamp venue(String id) {
+        Venue cached = caches.venuesById.getIfPresent(id);
+        return cached != null ? VersionStamp.of(cached) : project(id, Venue.class);
+    }
+
+    public VersionStamp seat(String id) {
+        return project(id, Seat.class);
+    }
+
+    private VersionStamp project(String id, Class<?> entity) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version", "lastModified");
+        Document stamp = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(entity));
+        if (stamp == null || !(stamp.get("version") instanceof Number version)) {
+            return null;
+        }
+        Date lastModified = stamp.getDate("lastModified");
+        return new VersionStamp(version.longValue(), lastModified != null ? lastModified.toInstant() : null);
+    }
+}
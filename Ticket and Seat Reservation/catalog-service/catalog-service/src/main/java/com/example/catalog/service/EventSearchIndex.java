@@ -0,0 +1,556 @@
+package com.example.catalog.service;
+
+import com.example.catalog.dto.EventSearchHit;
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over event title, venue name and event type.
+ * Query tokens match index terms exactly, by prefix (search-as-you-type) or
+ * within one edit (typos); an event scores match kind times field weight per
+ * token, summed over the tokens, and ties go to the sooner event.
+ * <p>
+ * Postings are kept per term and field in event-date order, so a search walks
+ * the best-scoring postings first and stops once nothing left can enter the
+ * top results, instead of scoring every event that contains a common word.
+ * Built from Mongo once the app is ready and again on a fixed delay to pick up
+ * writes made by other instances; local event writes are applied incrementally.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    // field weights: a title hit outranks a venue hit, which outranks a type hit
+    static final int TITLE = 3;
+    static final int VENUE = 2;
+    static final int TYPE = 1;
+
+    // match kinds, multiplied by the field weight
+    static final int EXACT = 3;
+    static final int PREFIX = 2;
+    static final int TYPO = 1;
+
+    // shorter tokens expand to too many terms by prefix, or match too loosely with a typo
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MIN_TYPO_LENGTH = 4;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // postings order: sooner event first, then by id
+    private static final Comparator<Doc> BY_DATE = Comparator.comparingLong(Doc::dateKey).thenComparing(Doc::eventId);
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    // changes made while a rebuild reads Mongo, replayed onto the new index before it is swapped in
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    public EventSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Runs after the ApplicationRunners, so events rewritten by the startup backfills are included
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // serve without search rather than fail startup; the scheduled rebuild retries
+            log.warn("Could not build the event search index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.rebuild-interval-ms:300000}",
+            initialDelayString = "${catalog.search.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+            Index fresh = new Index();
+            Query query = new Query();
+            query.fields().include("title", "eventType", "venueId", "venueName", "venueCity", "eventDate", "status");
+            try (Stream<Event> events = mongoTemplate.stream(query, Event.class)) {
+                events.forEach(fresh::put);
+            }
+            withWriteLock(() -> {
+                changesDuringRebuild.forEach(change -> change.accept(fresh));
+                index = fresh;
+            });
+            log.info("Indexed {} events ({} terms) for search in {} ms", fresh.docs.size(), fresh.postings.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            withWriteLock(() -> changesDuringRebuild = null);
+            rebuildLock.unlock();
+        }
+    }
+
+    public void put(Event event) {
+        apply(target -> target.put(event));
+    }
+
+    public void remove(String eventId) {
+        apply(target -> target.remove(eventId));
+    }
+
+    // Mirrors the venue name/city copy VenueService makes onto the venue's events
+    public void updateVenue(String venueId, String venueName, String venueCity) {
+        apply(target -> target.updateVenue(venueId, venueName, venueCity));
+    }
+
+    /**
+     * Ranked events matching every token of the query, best first, then soonest.
+     * Null filters are ignored; the date range is from inclusive, to exclusive.
+     */
+    public List<EventSearchHit> search(String text, Status status, LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        // worst of the best `limit` candidates at the head
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, (a, b) -> rank(b, a));
+        lock.readLock().lock();
+        try {
+            // walk the postings of the most selective token; the others are scored
+            // against each candidate's few terms, which also lets them be one letter
+            String lead = null;
+            List<Source> leadSources = List.of();
+            int leadSize = Integer.MAX_VALUE;
+            for (String token : tokens) {
+                if (lead != null && token.length() < MIN_PREFIX_LENGTH) {
+                    continue;
+                }
+                List<Source> sources = index.sources(token);
+                int size = 0;
+                for (Source source : sources) {
+                    size += source.docs().size();
+                }
+                if (size < leadSize || (lead != null && lead.length() < MIN_PREFIX_LENGTH)) {
+                    lead = token;
+                    leadSources = sources;
+                    leadSize = size;
+                }
+            }
+            List<String> rest = new ArrayList<>(tokens);
+            rest.remove(lead);
+            // the most the other tokens can add, so a tier can be skipped once it cannot catch up
+            int restMax = 0;
+            for (String token : rest) {
+                int tokenMax = index.maxScore(token);
+                if (tokenMax == 0) {
+                    return List.of();
+                }
+                restMax += tokenMax;
+            }
+
+            // an event can sit under several matched terms; its first visit carries its best lead score
+            Set<String> seen = new HashSet<>();
+            for (List<Source> tier : tiers(leadSources)) {
+                int leadScore = tier.get(0).score();
+                int ceiling = leadScore + restMax;
+                if (best.size() == limit && ceiling < best.peek().score()) {
+                    break;
+                }
+                DateMerge merge = new DateMerge(tier);
+                candidates:
+                while (merge.hasNext()) {
+                    Doc doc = merge.next();
+                    if (best.size() == limit) {
+                        Candidate worst = best.peek();
+                        // the rest of this tier is no sooner, so none of it can beat the worst kept hit
+                        if (ceiling < worst.score()
+                                || (ceiling == worst.score() && doc.dateKey() > worst.doc().dateKey())) {
+                            break;
+                        }
+                    }
+                    if (!seen.add(doc.eventId()) || !doc.matches(status, from, to)) {
+                        continue;
+                    }
+                    int score = leadScore;
+                    for (String token : rest) {
+                        int tokenScore = doc.score(token);
+                        if (tokenScore == 0) {
+                            continue candidates;
+                        }
+                        score += tokenScore;
+                    }
+                    Candidate candidate = new Candidate(doc, score);
+                    if (best.size() < limit) {
+                        best.offer(candidate);
+                    } else if (rank(candidate, best.peek()) < 0) {
+                        best.poll();
+                        best.offer(candidate);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<EventSearchHit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Candidate candidate = best.poll();
+            hits.add(candidate.doc().hit(candidate.score()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    // Lower-cased, accent-stripped words
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Sources grouped by score, best group first
+    private static List<List<Source>> tiers(List<Source> sources) {
+        TreeMap<Integer, List<Source>> byScore = new TreeMap<>(Comparator.reverseOrder());
+        for (Source source : sources) {
+            byScore.computeIfAbsent(source.score(), score -> new ArrayList<>()).add(source);
+        }
+        return new ArrayList<>(byScore.values());
+    }
+
+    private void apply(Consumer<Index> change) {
+        withWriteLock(() -> {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Candidate(Doc doc, int score) {}
+
+    // Negative when a ranks first: higher score, then the sooner event, then by id so ties are stable
+    private static int rank(Candidate a, Candidate b) {
+        if (a.score() != b.score()) {
+            return Integer.compare(b.score(), a.score());
+        }
+        return BY_DATE.compare(a.doc(), b.doc());
+    }
+
+    // The events holding one matched term in one field, and what that match scores
+    private record Source(int score, NavigableSet<Doc> docs) {}
+
+    // Walks several date-ordered sources as one date-ordered sequence
+    private static final class DateMerge implements Iterator<Doc> {
+
+        private record Head(Doc doc, Iterator<Doc> rest) {}
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> BY_DATE.compare(a.doc(), b.doc()));
+
+        DateMerge(List<Source> sources) {
+            for (Source source : sources) {
+                advance(source.docs().iterator());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Doc next() {
+            Head head = heads.poll();
+            advance(head.rest());
+            return head.doc();
+        }
+
+        private void advance(Iterator<Doc> docs) {
+            if (docs.hasNext()) {
+                heads.offer(new Head(docs.next(), docs));
+            }
+        }
+    }
+
+    // What the index keeps per event: the fields a hit shows, each term's best field weight,
+    // and the event date as epoch seconds for ordering (undated events last)
+    private record Doc(String eventId, String title, String eventType, String venueId, String venueName,
+                       String venueCity, LocalDateTime eventDate, Status status, Map<String, Integer> termWeights,
+                       long dateKey) {
+
+        static Doc of(String eventId, String title, String eventType, String venueId, String venueName,
+                      String venueCity, LocalDateTime eventDate, Status status) {
+            Map<String, Integer> weights = new HashMap<>();
+            tokenize(eventType).forEach(term -> weights.merge(term, TYPE, Math::max));
+            tokenize(venueName).forEach(term -> weights.merge(term, VENUE, Math::max));
+            tokenize(title).forEach(term -> weights.merge(term, TITLE, Math::max));
+            return new Doc(eventId, title, eventType, venueId, venueName, venueCity, eventDate, status,
+                    Map.copyOf(weights), eventDate != null ? eventDate.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE);
+        }
+
+        boolean matches(Status wanted, LocalDateTime from, LocalDateTime to) {
+            if (wanted != null && wanted != status) {
+                return false;
+            }
+            if (from != null && (eventDate == null || eventDate.isBefore(from))) {
+                return false;
+            }
+            return to == null || (eventDate != null && eventDate.isBefore(to));
+        }
+
+        // Best score of one query token against this event's terms, 0 when none match
+        int score(String token) {
+            int best = 0;
+            for (Map.Entry<String, Integer> term : termWeights.entrySet()) {
+                int kind;
+                if (term.getKey().equals(token)) {
+                    kind = EXACT;
+                } else if (term.getKey().startsWith(token)) {
+                    kind = PREFIX;
+                } else if (token.length() >= MIN_TYPO_LENGTH && term.getKey().length() >= MIN_TYPO_LENGTH
+                        && withinOneEdit(token, term.getKey())) {
+                    kind = TYPO;
+                } else {
+                    continue;
+                }
+                best = Math.max(best, kind * term.getValue());
+            }
+            return best;
+        }
+
+        EventSearchHit hit(int score) {
+            return new EventSearchHit(eventId, title, eventType, venueName, venueCity, eventDate, status, score);
+        }
+    }
+
+    // Not thread-safe on its own; guarded by the outer lock
+    private static final class Index {
+
+        final Map<String, Doc> docs = new HashMap<>();
+        // term -> events containing it, indexed by field weight; sorted so a prefix is a sub-map
+        final TreeMap<String, List<NavigableSet<Doc>>> postings = new TreeMap<>();
+        // term with one character deleted -> terms it came from, for one-edit typo lookups
+        final Map<String, Set<String>> deletions = new HashMap<>();
+
+        void put(Event event) {
+            add(Doc.of(event.getEventId(), event.getTitle(), event.getEventType(), event.getVenueId(),
+                    event.getVenueName(), event.getVenueCity(), event.getEventDate(), event.getStatus()));
+        }
+
+        void updateVenue(String venueId, String venueName, String venueCity) {
+            List<Doc> affected = docs.values().stream().filter(doc -> venueId.equals(doc.venueId())).toList();
+            for (Doc doc : affected) {
+                add(Doc.of(doc.eventId(), doc.title(), doc.eventType(), venueId, venueName, venueCity,
+                        doc.eventDate(), doc.status()));
+            }
+        }
+
+        void add(Doc doc) {
+            remove(doc.eventId());
+            docs.put(doc.eventId(), doc);
+            for (Map.Entry<String, Integer> term : doc.termWeights().entrySet()) {
+                List<NavigableSet<Doc>> byWeight = postings.get(term.getKey());
+                if (byWeight == null) {
+                    byWeight = new ArrayList<>(Collections.nCopies(TITLE + 1, null));
+                    postings.put(term.getKey(), byWeight);
+                    if (term.getKey().length() >= MIN_TYPO_LENGTH) {
+                        for (String deleted : deletions(term.getKey())) {
+                            deletions.computeIfAbsent(deleted, key -> new HashSet<>()).add(term.getKey());
+                        }
+                    }
+                }
+                NavigableSet<Doc> events = byWeight.get(term.getValue());
+                if (events == null) {
+                    events = new TreeSet<>(BY_DATE);
+                    byWeight.set(term.getValue(), events);
+                }
+                events.add(doc);
+            }
+        }
+
+        void remove(String eventId) {
+            Doc doc = docs.remove(eventId);
+            if (doc == null) {
+                return;
+            }
+            for (Map.Entry<String, Integer> term : doc.termWeights().entrySet()) {
+                List<NavigableSet<Doc>> byWeight = postings.get(term.getKey());
+                NavigableSet<Doc> events = byWeight.get(term.getValue());
+                events.remove(doc);
+                if (events.isEmpty()) {
+                    byWeight.set(term.getValue(), null);
+                }
+                if (byWeight.stream().allMatch(set -> set == null)) {
+                    postings.remove(term.getKey());
+                    if (term.getKey().length() >= MIN_TYPO_LENGTH) {
+                        for (String deleted : deletions(term.getKey())) {
+                            Set<String> terms = deletions.get(deleted);
+                            terms.remove(term.getKey());
+                            if (terms.isEmpty()) {
+                                deletions.remove(deleted);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Postings of every term the token matches exactly, by prefix or with one typo
+        List<Source> sources(String token) {
+            List<Source> sources = new ArrayList<>();
+            addSources(token, EXACT, sources);
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                    addSources(term, PREFIX, sources);
+                }
+            }
+            if (token.length() >= MIN_TYPO_LENGTH) {
+                for (String term : typoCandidates(token)) {
+                    addSources(term, TYPO, sources);
+                }
+            }
+            return sources;
+        }
+
+        // Highest score the token can get on any event, matching it the way Doc.score does
+        int maxScore(String token) {
+            int max = kind(token, EXACT);
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (max >= PREFIX * TITLE) {
+                    break;
+                }
+                max = Math.max(max, kind(term, PREFIX));
+            }
+            if (max < TYPO * TITLE && token.length() >= MIN_TYPO_LENGTH) {
+                for (String term : typoCandidates(token)) {
+                    max = Math.max(max, kind(term, TYPO));
+                }
+            }
+            return max;
+        }
+
+        // kind times the highest field weight the term appears in, 0 when it is not indexed
+        private int kind(String term, int kind) {
+            List<NavigableSet<Doc>> byWeight = postings.get(term);
+            if (byWeight != null) {
+                for (int weight = TITLE; weight >= TYPE; weight--) {
+                    if (byWeight.get(weight) != null) {
+                        return kind * weight;
+                    }
+                }
+            }
+            return 0;
+        }
+
+        private void addSources(String term, int kind, List<Source> sources) {
+            List<NavigableSet<Doc>> byWeight = postings.get(term);
+            if (byWeight == null) {
+                return;
+            }
+            for (int weight = TYPE; weight <= TITLE; weight++) {
+                if (byWeight.get(weight) != null) {
+                    sources.add(new Source(kind * weight, byWeight.get(weight)));
+                }
+            }
+        }
+
+        // Terms one insertion, deletion, substitution or adjacent swap away from the token
+        private Set<String> typoCandidates(String token) {
+            Set<String> candidates = new HashSet<>(deletions.getOrDefault(token, Set.of()));
+            for (String deleted : deletions(token)) {
+                if (postings.containsKey(deleted)) {
+                    candidates.add(deleted);
+                }
+                for (String term : deletions.getOrDefault(deleted, Set.of())) {
+                    if (withinOneEdit(token, term)) {
+                        candidates.add(term);
+                    }
+                }
+            }
+            candidates.remove(token);
+            return candidates;
+        }
+    }
+
+    static Set<String> deletions(String term) {
+        Set<String> deleted = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            deleted.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deleted;
+    }
+
+    // One insertion, deletion, substitution or adjacent swap apart
+    static boolean withinOneEdit(String a, String b) {
+        if (a.length() != b.length()) {
+            String longer = a.length() > b.length() ? a : b;
+            String shorter = longer == a ? b : a;
+            if (longer.length() - shorter.length() != 1) {
+                return false;
+            }
+            int i = 0;
+            while (i < shorter.length() && longer.charAt(i) == shorter.charAt(i)) {
+                i++;
+            }
+            return longer.regionMatches(i + 1, shorter, i, shorter.length() - i);
+        }
+        int first = -1;
+        int differences = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                if (++differences == 1) {
+                    first = i;
+                }
+            }
+        }
+        if (differences <= 1) {
+            return true;
+        }
+        return differences == 2 && first + 1 < a.length()
+                && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first);
+    }
+}
@@ -1,21 +1,49 @@
 package com.example.catalog.service;
 
+import com.example.catalog.dto.EventSearchHit;
+import com.example.catalog.entity.CatalogChange;
 import com.example.catalog.entity.Event;
 import com.example.catalog.entity.Status;
+import com.example.catalog.entity.Venue;
 import com.example.catalog.repository.EventRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.example.catalog.repository.VenueRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class EventService {
 
     private final EventRepository repo;
+    private final VenueRepository venueRepository;
+    private final CatalogCaches caches;
+    private final VenueCityIndex cityIndex;
+    private final EventSearchIndex searchIndex;
+    private final CatalogOutbox outbox;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public EventService(EventRepository repo) {
+    public EventService(EventRepository repo,
+                        VenueRepository venueRepository,
+                        CatalogCaches caches,
+                        VenueCityIndex cityIndex,
+                        EventSearchIndex searchIndex,
+                        CatalogOutbox outbox,
+                        @Value("${catalog.events.default-page-size:20}") int defaultPageSize,
+                        @Value("${catalog.events.max-page-size:100}") int maxPageSize) {
         this.repo = repo;
+        this.venueRepository = venueRepository;
+        this.caches = caches;
+        this.cityIndex = cityIndex;
+        this.searchIndex = searchIndex;
+        this.outbox = outbox;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     // Get all events
@@ -25,17 +53,110 @@ public class EventService {
 
     // Get events by status
     public List<Event> getEventsByStatus(Status status) {
-        return repo.findByStatus(status);
+        return caches.eventsByStatus.get(status, repo::findByStatus);
     }
 
-    // Get events with pagination
-    public List<Event> getFilteredEvents(Pageable pageable) {
-        Page<Event> page = repo.findAll(pageable);
-        return page.getContent();
+    // Get one keyset page of events filtered by city/type/status.
+    // Pass the last eventId of the previous page as afterId to continue.
+    // A city with no venues has no events, so the venue city map answers it without a query.
+    public List<Event> getFilteredEvents(String city, String type, String status, String afterId, Integer size) {
+        if (city != null && !cityIndex.hasVenues(city)) {
+            return Collections.emptyList();
+        }
+        Status statusFilter = null;
+        if (status != null) {
+            Optional<Status> parsed = parseStatus(status);
+            if (parsed.isEmpty()) {
+                return Collections.emptyList();
+            }
+            statusFilter = parsed.get();
+        }
+        return repo.findFiltered(city, type, statusFilter, afterId, pageSize(size));
+    }
+
+    // Ranked title/venue/type search served from the in-memory index; an unknown status matches nothing
+    public List<EventSearchHit> searchEvents(String text, String status, LocalDate from, LocalDate to, Integer size) {
+        Status statusFilter = null;
+        if (status != null) {
+            Optional<Status> parsed = parseStatus(status);
+            if (parsed.isEmpty()) {
+                return Collections.emptyList();
+            }
+            statusFilter = parsed.get();
+        }
+        return searchIndex.search(text, statusFilter,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                pageSize(size));
+    }
+
+    // Clamp the requested page size to [1, max]
+    public int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
     }
 
     // Get an event by ID
     public Event getEventById(String id) {
-        return repo.findById(id).orElse(null);
+        return caches.eventsById.get(id, key -> repo.findById(key).orElse(null));
+    }
+
+    // Create a new event, copying the venue name/city onto it
+    public Event createEvent(Event event) {
+        applyVenueSnapshot(event);
+        Event saved = save(event, CatalogChange.Type.CREATED);
+        caches.invalidateEvent(saved.getEventId());
+        searchIndex.put(saved);
+        return saved;
+    }
+
+    // Update an existing event
+    public Event updateEvent(String id, Event eventDetails) {
+        Event event = repo.findById(id).orElseThrow();
+        event.setTitle(eventDetails.getTitle());
+        event.setEventType(eventDetails.getEventType());
+        event.setEventDate(eventDetails.getEventDate());
+        event.setBasePrice(eventDetails.getBasePrice());
+        event.setStatus(eventDetails.getStatus());
+        event.setVenueId(eventDetails.getVenueId());
+        applyVenueSnapshot(event);
+        Event saved = save(event, CatalogChange.Type.UPDATED);
+        caches.invalidateEvent(id);
+        searchIndex.put(saved);
+        return saved;
+    }
+
+    // Delete an event by ID
+    public void deleteEvent(String id) {
+        outbox.write(() -> {
+            repo.deleteById(id);
+            outbox.record(CatalogChange.Entity.EVENT, CatalogChange.Type.DELETED, id, id, null);
+        });
+        caches.invalidateEvent(id);
+        searchIndex.remove(id);
+    }
+
+    private Event save(Event event, CatalogChange.Type type) {
+        return outbox.write(() -> {
+            Event saved = repo.save(event);
+            outbox.record(CatalogChange.Entity.EVENT, type, saved.getEventId(), saved.getEventId(), saved.getVersion());
+            return saved;
+        });
+    }
+
+    private void applyVenueSnapshot(Event event) {
+        Venue venue = event.getVenueId() != null
+                ? venueRepository.findById(event.getVenueId()).orElse(null)
+                : null;
+        event.setVenueName(venue != null ? venue.getName() : null);
+        event.setVenueCity(venue != null ? venue.getCity() : null);
+    }
+
+    static Optional<Status> parseStatus(String status) {
+        return Arrays.stream(Status.values())
+                .filter(s -> s.name().equalsIgnoreCase(status))
+                .findFirst();
     }
 }
@@ -0,0 +1,81 @@
+package com.example.catalog.service;
+
+import com.example.catalog.dto.SeatView;
+import com.example.catalog.entity.Event;
+import com.example.catalog.entity.Status;
+import com.example.catalog.entity.Venue;
+import com.example.catalog.repository.ReactiveEventRepository;
+import com.example.catalog.repository.ReactiveSeatRepository;
+import com.example.catalog.repository.ReactiveVenueRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Read-only catalog queries on the reactive Mongo driver. Nothing here blocks,
+ * so a request holds no thread while Mongo is working, and results are
+ * emitted document by document at the pace the client reads them.
+ * Writes and cached reads stay on EventService/VenueService/SeatService.
+ */
+@Service
+public class ReactiveCatalogService {
+
+    private final ReactiveEventRepository eventRepository;
+    private final ReactiveSeatRepository seatRepository;
+    private final ReactiveVenueRepository venueRepository;
+    private final EventService eventService;
+
+    public ReactiveCatalogService(ReactiveEventRepository eventRepository,
+                                  ReactiveSeatRepository seatRepository,
+                                  ReactiveVenueRepository venueRepository,
+                                  EventService eventService) {
+        this.eventRepository = eventRepository;
+        this.seatRepository = seatRepository;
+        this.venueRepository = venueRepository;
+        this.eventService = eventService;
+    }
+
+    // Same filters and keyset paging as EventService.getFilteredEvents
+    public Flux<Event> getFilteredEvents(String city, String type, String status, String afterId, Integer size) {
+        Status statusFilter = null;
+        if (status != null) {
+            Optional<Status> parsed = EventService.parseStatus(status);
+            if (parsed.isEmpty()) {
+                return Flux.empty();
+            }
+            statusFilter = parsed.get();
+        }
+        return eventRepository.findFiltered(city, type, statusFilter, afterId, eventService.pageSize(size));
+    }
+
+    public int pageSize(Integer requested) {
+        return eventService.pageSize(requested);
+    }
+
+    public Mono<Event> getEventById(String id) {
+        return eventRepository.findById(id);
+    }
+
+    // Seat views for one event; the event is read once, then seats stream from the cursor
+    public Flux<SeatView> getSeatViewsByEventId(String eventId) {
+        return eventRepository.findById(eventId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(event -> seatRepository.findByEventId(eventId)
+                        .map(seat -> SeatService.toView(seat, event.orElse(null))));
+    }
+
+    public Flux<Venue> getAllVenues() {
+        return venueRepository.findAll();
+    }
+
+    public Mono<Venue> getVenueById(String id) {
+        return venueRepository.findById(id);
+    }
+
+    public Flux<Venue> getVenuesByCity(String city) {
+        return venueRepository.findByCityKey(Venue.cityKey(city));
+    }
+}
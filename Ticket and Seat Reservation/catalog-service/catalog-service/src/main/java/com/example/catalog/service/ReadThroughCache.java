@@ -0,0 +1,149 @@
+package com.example.catalog.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small in-process LRU cache with a per-entry time-to-live.
+ * Missing keys are loaded through the supplied loader; null results are not cached.
+ * Hits are lock-free reads of a concurrent map; only inserts and invalidations
+ * take the lock. Values are stored and returned through the copier, so callers
+ * never share the cached instance. Once the cache grows past maxSize the least
+ * recently read tenth is evicted in one pass.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // a lock rather than synchronized so contended virtual threads do not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // bumped on every invalidation so a load that raced with a write is not cached
+    private volatile long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ReadThroughCache(String name, int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.copier = copier;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        long loadGeneration = generation;
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt - now > 0) {
+                entry.lastRead = now;
+                hits.incrementAndGet();
+                return copier.apply(entry.value);
+            }
+            if (entries.remove(key, entry)) {
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        // load outside the lock so one slow Mongo read does not block other keys
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, copier.apply(value), now, loadGeneration);
+        }
+        return value;
+    }
+
+    // A copy of the cached value if present and fresh; never loads and does not count as a hit or miss
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAt - System.nanoTime() > 0 ? copier.apply(entry.value) : null;
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private void put(K key, V value, long now, long loadGeneration) {
+        lock.lock();
+        try {
+            if (loadGeneration != generation) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, now + ttlNanos, now));
+            if (entries.size() > maxSize) {
+                evictLeastRecentlyRead();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Under the lock; drops entries down to 90% of maxSize so the sort is paid once per tenth of inserts
+    private void evictLeastRecentlyRead() {
+        // lastRead is snapshotted first: hits keep writing it while the sort runs
+        List<Candidate<K, V>> byLastRead = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) -> byLastRead.add(new Candidate<>(key, entry, entry.lastRead)));
+        byLastRead.sort(Comparator.comparingLong(Candidate::lastRead));
+        int excess = entries.size() - (maxSize - maxSize / 10);
+        for (int i = 0; i < excess && i < byLastRead.size(); i++) {
+            Candidate<K, V> eldest = byLastRead.get(i);
+            if (entries.remove(eldest.key(), eldest.entry())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long lastRead) {}
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        // written on hits without the lock; only ever compared for eviction order
+        volatile long lastRead;
+
+        Entry(V value, long expiresAt, long lastRead) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastRead = lastRead;
+        }
+    }
+}
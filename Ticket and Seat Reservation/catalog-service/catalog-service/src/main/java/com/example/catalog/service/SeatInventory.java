@@ -0,0 +1,202 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Seat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Availability of every seat of one event, held as a bitset.
+ * Seats get a dense index (ordered by section, row, number) and bit i of
+ * {@code available} is set while seat i is free. Reserve/release are CAS
+ * loops on the containing word, so no locks are taken on the hot path.
+ * Changed seats are also marked in {@code dirty} until they are written back.
+ * <p>
+ * An instance being replaced is first {@link #retire retired}: it refuses
+ * further changes and waits for the ones in progress, so a final drain sees
+ * every change ever made to it. Callers retry a refused change on the new instance.
+ */
+public class SeatInventory {
+
+    enum Transition { CHANGED, UNCHANGED, RETIRED }
+
+    private final String eventId;
+    private final String[] seatIds;
+    private final Map<String, Integer> indexBySeatId;
+    private final Map<String, long[]> sectionMasks;
+    private final AtomicLongArray available;
+    private final AtomicLongArray dirty;
+    // changes in progress, counted so retire can wait them out
+    private final AtomicInteger writers = new AtomicInteger();
+    private volatile boolean retired;
+    // held for a whole write-back, and by an invalidation until the instance is dropped, so a
+    // reload never reads Mongo while a drained batch is unwritten
+    final ReentrantLock flushLock = new ReentrantLock();
+
+    SeatInventory(String eventId, List<Seat> seats) {
+        List<Seat> ordered = new ArrayList<>(seats);
+        ordered.sort(Comparator.comparing(Seat::getSection, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Seat::getSeatRow, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Seat::getSeatNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int words = (ordered.size() + 63) >>> 6;
+        this.eventId = eventId;
+        this.seatIds = new String[ordered.size()];
+        this.indexBySeatId = new HashMap<>(ordered.size() * 2);
+        this.sectionMasks = new LinkedHashMap<>();
+        this.dirty = new AtomicLongArray(words);
+
+        long[] free = new long[words];
+        for (int i = 0; i < ordered.size(); i++) {
+            Seat seat = ordered.get(i);
+            seatIds[i] = seat.getSeatId();
+            indexBySeatId.put(seat.getSeatId(), i);
+            sectionMasks.computeIfAbsent(seat.getSection(), k -> new long[words])[i >>> 6] |= 1L << i;
+            if (seat.isAvailable()) {
+                free[i >>> 6] |= 1L << i;
+            }
+        }
+        this.available = new AtomicLongArray(free);
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    // Dense index of a seat, or -1 when the seat is not part of this event
+    public int indexOf(String seatId) {
+        Integer index = indexBySeatId.get(seatId);
+        return index != null ? index : -1;
+    }
+
+    public String seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    public boolean isAvailable(int index) {
+        return (available.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    // Atomically flip a free seat to taken; UNCHANGED if it was already taken
+    Transition reserve(int index) {
+        return transition(index, true);
+    }
+
+    // Atomically flip a taken seat back to free; UNCHANGED if it was already free
+    Transition release(int index) {
+        return transition(index, false);
+    }
+
+    // Refuse changes from now on and wait for those in progress; returns once the dirty set is final
+    void retire() {
+        retired = true;
+        while (writers.get() != 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // Accept changes again, after a retired instance could not be written back
+    void reopen() {
+        retired = false;
+    }
+
+    public int availableCount() {
+        int count = 0;
+        for (int w = 0; w < available.length(); w++) {
+            count += Long.bitCount(available.get(w));
+        }
+        return count;
+    }
+
+    // Free seats in one section, or 0 for an unknown section
+    public int availableCount(String section) {
+        long[] mask = sectionMasks.get(section);
+        if (mask == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int w = 0; w < mask.length; w++) {
+            count += Long.bitCount(available.get(w) & mask[w]);
+        }
+        return count;
+    }
+
+    public Map<String, Integer> availableBySection() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String section : sectionMasks.keySet()) {
+            counts.put(section, availableCount(section));
+        }
+        return counts;
+    }
+
+    // Copy of the availability words, bit i = seat i free
+    public long[] snapshot() {
+        long[] words = new long[available.length()];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = available.get(w);
+        }
+        return words;
+    }
+
+    public List<String> seatIds() {
+        return List.of(seatIds);
+    }
+
+    // Take the indexes changed since the last drain; their current state is what gets written
+    List<Integer> drainDirty() {
+        List<Integer> changed = new ArrayList<>();
+        for (int w = 0; w < dirty.length(); w++) {
+            long bits = dirty.getAndSet(w, 0L);
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                changed.add((w << 6) + bit);
+                bits &= bits - 1;
+            }
+        }
+        return changed;
+    }
+
+    // Re-queue indexes whose write-back failed
+    void markDirty(List<Integer> indexes) {
+        for (int index : indexes) {
+            dirty.getAndUpdate(index >>> 6, d -> d | (1L << index));
+        }
+    }
+
+    private Transition transition(int index, boolean reserve) {
+        // registered before retired is read, so retire either sees this writer or this writer sees retired
+        writers.incrementAndGet();
+        try {
+            if (retired) {
+                return Transition.RETIRED;
+            }
+            int word = index >>> 6;
+            long bit = 1L << index;
+            while (true) {
+                long current = available.get(word);
+                boolean free = (current & bit) != 0;
+                if (free != reserve) {
+                    return Transition.UNCHANGED;
+                }
+                long next = reserve ? current & ~bit : current | bit;
+                if (available.compareAndSet(word, current, next)) {
+                    dirty.getAndUpdate(word, d -> d | bit);
+                    return Transition.CHANGED;
+                }
+            }
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Seat;
+import com.example.catalog.exception.NotFoundException;
+import com.example.catalog.repository.SeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-event seat availability kept in memory and written back to Mongo in batches
+@Service
+public class SeatInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private final SeatRepository seatRepository;
+    private final MongoTemplate mongoTemplate;
+    private final int flushBatchSize;
+    private final ConcurrentMap<String, SeatInventory> inventories = new ConcurrentHashMap<>();
+    // bumped by every invalidation, so a load that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SeatInventoryService(SeatRepository seatRepository,
+                                MongoTemplate mongoTemplate,
+                                @Value("${catalog.inventory.flush-batch-size:1000}") int flushBatchSize) {
+        this.seatRepository = seatRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    // Inventory for an event, loaded from the seats collection on first use.
+    // Events without seats are not cached, so unknown ids cannot grow the map.
+    public SeatInventory getInventory(String eventId) {
+        while (true) {
+            long seen = invalidations.get();
+            SeatInventory cached = inventories.get(eventId);
+            if (cached != null) {
+                return cached;
+            }
+            List<Seat> seats = seatRepository.findByEventId(eventId);
+            if (seats.isEmpty()) {
+                throw new NotFoundException("No seats found for event " + eventId);
+            }
+            SeatInventory loaded = new SeatInventory(eventId, seats);
+            // an invalidation since the read may have written changes the read missed
+            SeatInventory inventory = inventories.compute(eventId,
+                    (id, current) -> current != null ? current : invalidations.get() == seen ? loaded : null);
+            if (inventory != null) {
+                return inventory;
+            }
+        }
+    }
+
+    public boolean reserve(String eventId, String seatId) {
+        return change(eventId, seatId, true);
+    }
+
+    public boolean release(String eventId, String seatId) {
+        return change(eventId, seatId, false);
+    }
+
+    // Write pending changes and drop the event so the next read reloads it.
+    // The write happens under the inventory's flush lock, not the map's: the retired
+    // instance stays mapped until it is written, so reads keep seeing its state and
+    // changes racing with it wait for the lock and retry on the reloaded instance.
+    public void invalidate(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        SeatInventory inventory = inventories.get(eventId);
+        if (inventory == null) {
+            return;
+        }
+        inventory.flushLock.lock();
+        try {
+            inventory.retire();
+            if (writeBack(inventory)) {
+                invalidations.incrementAndGet();
+                inventories.remove(eventId, inventory);
+            } else {
+                // keep serving the unwritten changes; the scheduled flush retries them
+                inventory.reopen();
+            }
+        } finally {
+            inventory.flushLock.unlock();
+        }
+    }
+
+    private boolean change(String eventId, String seatId, boolean reserve) {
+        while (true) {
+            SeatInventory inventory = getInventory(eventId);
+            int index = requireIndex(inventory, seatId);
+            SeatInventory.Transition result = reserve ? inventory.reserve(index) : inventory.release(index);
+            if (result != SeatInventory.Transition.RETIRED) {
+                return result == SeatInventory.Transition.CHANGED;
+            }
+            // the instance is being invalidated; wait for its write and retry on the reloaded one
+            inventory.flushLock.lock();
+            inventory.flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.inventory.flush-interval-ms:500}")
+    public void flushAll() {
+        inventories.values().forEach(this::flush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    // False when a batch failed; its changes stay queued on the inventory
+    private boolean flush(SeatInventory inventory) {
+        inventory.flushLock.lock();
+        try {
+            return writeBack(inventory);
+        } finally {
+            inventory.flushLock.unlock();
+        }
+    }
+
+    private boolean writeBack(SeatInventory inventory) {
+        List<Integer> changed = inventory.drainDirty();
+        for (int from = 0; from < changed.size(); from += flushBatchSize) {
+            List<Integer> batch = changed.subList(from, Math.min(from + flushBatchSize, changed.size()));
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Seat.class);
+            for (int index : batch) {
+                bulk.updateOne(
+                        Query.query(Criteria.where("_id").is(inventory.seatIdAt(index))),
+                        Update.update("available", inventory.isAvailable(index))
+                                .inc("version", 1).currentDate("lastModified"));
+            }
+            try {
+                bulk.execute();
+            } catch (RuntimeException ex) {
+                // keep the remaining changes queued for the next flush
+                inventory.markDirty(changed.subList(from, changed.size()));
+                log.warn("Seat inventory flush failed for event {}: {}", inventory.getEventId(), ex.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int requireIndex(SeatInventory inventory, String seatId) {
+        int index = inventory.indexOf(seatId);
+        if (index < 0) {
+            throw new NotFoundException("Seat " + seatId + " not found for event " + inventory.getEventId());
+        }
+        return index;
+    }
+}
@@ -1,19 +1,39 @@
 package com.example.catalog.service;
 
+import com.example.catalog.dto.SeatView;
+import com.example.catalog.entity.CatalogChange;
+import com.example.catalog.entity.Event;
 import com.example.catalog.entity.Seat;
+import com.example.catalog.exception.BadRequestException;
+import com.example.catalog.repository.EventRepository;
 import com.example.catalog.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class SeatService {
 
     private final SeatRepository seatRepository;
+    private final EventRepository eventRepository;
+    private final SeatInventoryService inventoryService;
+    private final CatalogOutbox outbox;
+    private final int maxResults;
 
-    public SeatService(SeatRepository seatRepository) {
+    public SeatService(SeatRepository seatRepository, EventRepository eventRepository,
+                       SeatInventoryService inventoryService, CatalogOutbox outbox,
+                       @Value("${catalog.seats.max-results:5000}") int maxResults) {
         this.seatRepository = seatRepository;
+        this.eventRepository = eventRepository;
+        this.inventoryService = inventoryService;
+        this.outbox = outbox;
+        this.maxResults = maxResults;
     }
 
     // Get all seats
@@ -28,29 +48,124 @@ public class SeatService {
 
     // Get all seats by event ID
     public List<Seat> getSeatsByEventId(String eventId) {
-        return seatRepository.findByEventEventId(eventId);
+        return seatRepository.findByEventId(eventId);
+    }
+
+    // Clamp the requested page size to [1, max]; reads without a size get the max
+    public int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return maxResults;
+        }
+        return Math.min(requested, maxResults);
+    }
+
+    // Id of the last seat of the page after afterId when more seats follow, else null.
+    // eventId null pages through all seats.
+    public String nextPageAfter(String eventId, String afterId, int size) {
+        return seatRepository.findPageEnd(eventId, afterId, size);
+    }
+
+    // The seats streamed below are read from a Mongo cursor in batches and must be closed.
+    // Pass the page end from nextPageAfter as upToId so the page stops where the next one starts.
+    public Stream<Seat> streamSeats(String afterId, String upToId, int size) {
+        return seatRepository.streamPage(null, afterId, upToId, size);
+    }
+
+    // Seat views for one event; the event is read once for the whole page
+    public Stream<SeatView> streamSeatViewsByEventId(String eventId, String afterId, String upToId, int size) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        return seatRepository.streamPage(eventId, afterId, upToId, size)
+                .map(seat -> toView(seat, event));
+    }
+
+    // Seat views for arbitrary seat ids, resolving each distinct event once
+    public Stream<SeatView> streamSeatViewsByIds(List<String> ids) {
+        if (ids.size() > maxResults) {
+            throw new BadRequestException("At most " + maxResults + " seat ids per request");
+        }
+        Map<String, Optional<Event>> events = new HashMap<>();
+        return seatRepository.streamByIds(ids)
+                .map(seat -> toView(seat, seat.getEventId() == null ? null
+                        : events.computeIfAbsent(seat.getEventId(), eventRepository::findById).orElse(null)));
+    }
+
+    // Split a comma-separated id list, trimming like String.trim and dropping empty entries.
+    // Single pass over the string: no regex split and no intermediate arrays.
+    public static List<String> parseSeatIds(String csv) {
+        List<String> ids = new ArrayList<>();
+        int len = csv.length();
+        int start = 0;
+        while (start <= len) {
+            int end = csv.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && csv.charAt(from) <= ' ') {
+                from++;
+            }
+            while (to > from && csv.charAt(to - 1) <= ' ') {
+                to--;
+            }
+            if (from < to) {
+                ids.add(csv.substring(from, to));
+            }
+            start = end + 1;
+        }
+        return ids;
     }
 
     // Create new seat
     public Seat createSeat(Seat seat) {
-        return seatRepository.save(seat);
+        Seat saved = save(seat, CatalogChange.Type.CREATED);
+        inventoryService.invalidate(saved.getEventId());
+        return saved;
     }
 
     // Update existing seat
     public Seat updateSeat(String id, Seat seatDetails) {
-        Seat seat = seatRepository.findById(id).orElseThrow(() -> 
-            new RuntimeException("Seat not found with id " + id)
-        );
+        Seat seat = seatRepository.findById(id).orElseThrow();
+        // flush in-memory availability first so the save below does not overwrite it
+        inventoryService.invalidate(seat.getEventId());
+        seat = seatRepository.findById(id).orElseThrow();
         seat.setSection(seatDetails.getSection());
         seat.setSeatRow(seatDetails.getSeatRow());
         seat.setSeatNumber(seatDetails.getSeatNumber());
         seat.setPrice(seatDetails.getPrice());
-        seat.setEvent(seatDetails.getEvent());
-        return seatRepository.save(seat);
+        seat.setEventId(seatDetails.getEventId());
+        Seat saved = save(seat, CatalogChange.Type.UPDATED);
+        inventoryService.invalidate(saved.getEventId());
+        return saved;
     }
 
-    // Delete seat by ID
+    // Delete seat by ID; the seat's event is read first so the change is keyed by it
     public void deleteSeat(String id) {
-        seatRepository.deleteById(id);
+        String eventId = seatRepository.findById(id).map(Seat::getEventId).orElse(null);
+        inventoryService.invalidate(eventId);
+        outbox.write(() -> {
+            seatRepository.deleteById(id);
+            outbox.record(CatalogChange.Entity.SEAT, CatalogChange.Type.DELETED, id, eventId, null);
+        });
+    }
+
+    private Seat save(Seat seat, CatalogChange.Type type) {
+        return outbox.write(() -> {
+            Seat saved = seatRepository.save(seat);
+            outbox.record(CatalogChange.Entity.SEAT, type, saved.getSeatId(), saved.getEventId(), saved.getVersion());
+            return saved;
+        });
+    }
+
+    static SeatView toView(Seat seat, Event event) {
+        return new SeatView(
+                seat.getSeatId(),
+                seat.getEventId(),
+                event != null ? event.getTitle() : null,
+                event != null ? event.getVenueName() : null,
+                seat.getSection(),
+                seat.getSeatRow(),
+                seat.getSeatNumber(),
+                seat.getPrice());
     }
 }
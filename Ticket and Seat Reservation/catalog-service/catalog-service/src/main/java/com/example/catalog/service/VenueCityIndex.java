@@ -0,0 +1,92 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Venue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory map from city key to the ids of the venues in that city.
+ * City browse is the most common landing query, so lookups for a city with
+ * no venues are answered here without touching Mongo. The map is rebuilt from
+ * a cityKey/_id projection after a local venue write or once the TTL passes,
+ * which bounds how long a write made by another instance goes unseen.
+ */
+@Component
+public class VenueCityIndex {
+
+    private record Snapshot(Map<String, List<String>> venueIds, long expiresAt) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public VenueCityIndex(MongoTemplate mongoTemplate,
+                          @Value("${catalog.cache.ttl-ms:60000}") long ttlMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    // Ids of the venues in the city, empty when there are none
+    public List<String> venueIds(String city) {
+        String key = Venue.cityKey(city);
+        return key == null ? List.of() : current().getOrDefault(key, List.of());
+    }
+
+    public boolean hasVenues(String city) {
+        return !venueIds(city).isEmpty();
+    }
+
+    // Takes the lock so a rebuild that read the venues before the write is dropped, not kept
+    public void invalidate() {
+        lock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, List<String>> current() {
+        Snapshot current = snapshot;
+        if (current != null && current.expiresAt - System.nanoTime() > 0) {
+            return current.venueIds;
+        }
+        lock.lock();
+        try {
+            // another thread may have rebuilt it while we waited
+            current = snapshot;
+            if (current != null && current.expiresAt - System.nanoTime() > 0) {
+                return current.venueIds;
+            }
+            Map<String, List<String>> venueIds = load();
+            snapshot = new Snapshot(venueIds, System.nanoTime() + ttlNanos);
+            return venueIds;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, List<String>> load() {
+        Query query = new Query();
+        query.fields().include("cityKey");
+        Map<String, List<String>> venueIds = new HashMap<>();
+        for (Document venue : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Venue.class))) {
+            String key = venue.getString("cityKey");
+            if (key != null) {
+                venueIds.computeIfAbsent(key, k -> new ArrayList<>()).add(String.valueOf(venue.get("_id")));
+            }
+        }
+        venueIds.replaceAll((key, ids) -> List.copyOf(ids));
+        return Map.copyOf(venueIds);
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.catalog.service;
 
+import com.example.catalog.entity.CatalogChange;
+import com.example.catalog.entity.Event;
 import com.example.catalog.entity.Venue;
 import com.example.catalog.repository.VenueRepository;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -10,9 +16,20 @@ import java.util.List;
 public class VenueService {
 
     private final VenueRepository repo;
+    private final MongoTemplate mongoTemplate;
+    private final CatalogCaches caches;
+    private final VenueCityIndex cityIndex;
+    private final EventSearchIndex searchIndex;
+    private final CatalogOutbox outbox;
 
-    public VenueService(VenueRepository repo) {
+    public VenueService(VenueRepository repo, MongoTemplate mongoTemplate, CatalogCaches caches,
+                        VenueCityIndex cityIndex, EventSearchIndex searchIndex, CatalogOutbox outbox) {
         this.repo = repo;
+        this.mongoTemplate = mongoTemplate;
+        this.caches = caches;
+        this.cityIndex = cityIndex;
+        this.searchIndex = searchIndex;
+        this.outbox = outbox;
     }
 
     // Get all venues
@@ -20,13 +37,63 @@ public class VenueService {
         return repo.findAll();
     }
 
-    // Find venues by city (case-insensitive)
+    // Find venues by city (case-insensitive); cities with no venues never reach Mongo
     public List<Venue> getVenuesByCity(String city) {
-        return repo.findByCityIgnoreCase(city);
+        if (!cityIndex.hasVenues(city)) {
+            return List.of();
+        }
+        return caches.venuesByCity.get(Venue.cityKey(city), repo::findByCityKey);
     }
 
     // Get a venue by ID
     public Venue getVenueById(String id) {
-        return repo.findById(id).orElse(null);
+        return caches.venuesById.get(id, key -> repo.findById(key).orElse(null));
+    }
+
+    // Create a new venue
+    public Venue createVenue(Venue venue) {
+        Venue saved = outbox.write(() -> {
+            Venue s = repo.save(venue);
+            outbox.record(CatalogChange.Entity.VENUE, CatalogChange.Type.CREATED, s.getVenueId(), null, s.getVersion());
+            return s;
+        });
+        caches.invalidateVenue(saved.getVenueId());
+        cityIndex.invalidate();
+        return saved;
+    }
+
+    // Update a venue and refresh the name/city copied onto its events. One VENUE change covers
+    // the events too: subscribers drop whatever they hold for the venue's events.
+    public Venue updateVenue(String id, Venue venueDetails) {
+        Venue venue = repo.findById(id).orElseThrow();
+        venue.setName(venueDetails.getName());
+        venue.setCity(venueDetails.getCity());
+        venue.setCapacity(venueDetails.getCapacity());
+        Venue saved = outbox.write(() -> {
+            Venue s = repo.save(venue);
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("venueId").is(id)),
+                    new Update().set("venueName", s.getName()).set("venueCity", s.getCity())
+                            .set("venueCityKey", s.getCityKey())
+                            .inc("version", 1).currentDate("lastModified"),
+                    Event.class);
+            outbox.record(CatalogChange.Entity.VENUE, CatalogChange.Type.UPDATED, id, null, s.getVersion());
+            return s;
+        });
+        caches.invalidateVenue(id);
+        caches.invalidateAllEvents();
+        cityIndex.invalidate();
+        searchIndex.updateVenue(id, saved.getName(), saved.getCity());
+        return saved;
+    }
+
+    // Delete a venue by ID
+    public void deleteVenue(String id) {
+        outbox.write(() -> {
+            repo.deleteById(id);
+            outbox.record(CatalogChange.Entity.VENUE, CatalogChange.Type.DELETED, id, null, null);
+        });
+        caches.invalidateVenue(id);
+        cityIndex.invalidate();
     }
 }
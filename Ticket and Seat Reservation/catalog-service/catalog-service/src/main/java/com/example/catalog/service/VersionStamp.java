@@ -0,0 +1,21 @@
+package com.example.catalog.service;
+
+import com.example.catalog.entity.Versioned;
+
+import java.time.Instant;
+
+// Version and last write time of one catalog document, as used for HTTP validators
+public record VersionStamp(long version, Instant lastModified) {
+
+    // null when the document predates versioning and has not been backfilled yet
+    public static VersionStamp of(Versioned document) {
+        if (document == null || document.getVersion() == null) {
+            return null;
+        }
+        return new VersionStamp(document.getVersion(), document.getLastModified());
+    }
+
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates the venue, events and seats the scenarios order against, through
+ * the catalog API, so it works the same for embedded and remote services.
+ */
+final class CatalogSeed {
+
+    private static final int PARALLEL_WRITES = 64;
+
+    final String onSaleEventId;
+    final String contentionEventId;
+    final List<String> onSaleSeats;
+    final List<String> contentionSeats;
+    final List<String> browseEventIds = new ArrayList<>();
+
+    CatalogSeed(HttpTarget http, String catalogUrl, LoadTestOptions options) {
+        String venueId = http.post(catalogUrl + "/api/venues",
+                        Map.of("name", "Load Test Arena", "city", "Mumbai", "capacity", options.seatsPerEvent()))
+                .thenApply(reply -> reply.json(http.mapper()).path("venueId").asText())
+                .join();
+        for (int i = 0; i < 20; i++) {
+            browseEventIds.add(createEvent(http, catalogUrl, venueId, "Browse " + i, i % 2 == 0 ? "Concert" : "Sports"));
+        }
+        onSaleEventId = createEvent(http, catalogUrl, venueId, "On-sale headline", "Concert");
+        contentionEventId = createEvent(http, catalogUrl, venueId, "Last few seats", "Concert");
+        browseEventIds.add(onSaleEventId);
+        onSaleSeats = createSeats(http, catalogUrl, onSaleEventId, options.seatsPerEvent());
+        contentionSeats = createSeats(http, catalogUrl, contentionEventId, options.contentionSeats());
+    }
+
+    private static String createEvent(HttpTarget http, String catalogUrl, String venueId, String title, String type) {
+        Map<String, Object> event = Map.of(
+                "venueId", venueId,
+                "title", title,
+                "eventType", type,
+                "eventDate", "2026-12-31T19:30:00",
+                "basePrice", 499.0,
+                "status", "AVAILABLE");
+        return http.post(catalogUrl + "/api/events", event)
+                .thenApply(reply -> reply.json(http.mapper()).path("eventId").asText())
+                .join();
+    }
+
+    private static List<String> createSeats(HttpTarget http, String catalogUrl, String eventId, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += PARALLEL_WRITES) {
+            List<CompletableFuture<String>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + PARALLEL_WRITES, count); i++) {
+                Map<String, Object> seat = Map.of(
+                        "eventId", eventId,
+                        "section", "S" + (i / 500),
+                        "seatRow", String.valueOf((char) ('A' + (i / 25) % 20)),
+                        "seatNumber", String.valueOf(i % 25 + 1),
+                        "price", 499.0);
+                batch.add(http.post(catalogUrl + "/api/seats", seat)
+                        .thenApply(reply -> {
+                            JsonNode json = reply.json(http.mapper());
+                            return json.path("seatId").asText();
+                        }));
+            }
+            batch.forEach(f -> ids.add(f.join()));
+        }
+        return ids;
+    }
+}
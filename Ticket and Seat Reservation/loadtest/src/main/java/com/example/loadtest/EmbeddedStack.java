@@ -0,0 +1,125 @@
+package com.example.loadtest;
+
+import com.example.catalog.CatalogApplication;
+import com.example.orderservice.OrderServiceApplication;
+import com.example.paymentservice.PaymentServiceApplication;
+import com.example.paymentservice.service.GatewaySimulator;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * payment-service, order-service and catalog-service started in this JVM on
+ * random ports, each with its own application.properties and its own
+ * in-memory Mongo (mongo-java-server). The payment gateway is the
+ * {@link GatewaySimulator}, whose latency scenarios can change mid-run.
+ */
+final class EmbeddedStack implements AutoCloseable {
+
+    // The reactive driver is here only for catalog-service; keep the other
+    // services on the blocking client alone, as they are deployed
+    private static final String NO_REACTIVE_MONGO = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration";
+
+    private final List<MongoServer> mongoServers = new ArrayList<>();
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private GatewaySimulator gateway;
+    String paymentUrl;
+    String orderUrl;
+    String catalogUrl;
+
+    EmbeddedStack(LoadTestOptions options) {
+        try {
+            startServices(options);
+        } catch (RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    private void startServices(LoadTestOptions options) {
+        Path services = Path.of(options.servicesDir());
+
+        ConfigurableApplicationContext payment = start(PaymentServiceApplication.class,
+                services.resolve("payment-service/src/main/resources/application.properties"),
+                startMongo("paymentsdb"),
+                withSpanFile(options, "payment-service", NO_REACTIVE_MONGO,
+                        "--payment.gateway.latency-ms=" + options.gatewayLatencyMs()));
+        paymentUrl = url(payment);
+        gateway = payment.getBean(GatewaySimulator.class);
+
+        ConfigurableApplicationContext order = start(OrderServiceApplication.class,
+                services.resolve("order-service/src/main/resources/application.properties"),
+                startMongo("ordersdb"),
+                withSpanFile(options, "order-service", NO_REACTIVE_MONGO,
+                        "--payment.service.url=" + paymentUrl));
+        orderUrl = url(order);
+
+        ConfigurableApplicationContext catalog = start(CatalogApplication.class,
+                services.resolve("catalog-service/catalog-service/src/main/resources/application.properties"),
+                startMongo("catalogdb"));
+        catalogUrl = url(catalog);
+    }
+
+    GatewaySimulator gateway() {
+        return gateway;
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        mongoServers.forEach(MongoServer::shutdownNow);
+    }
+
+    // one server per service, as in the deployment, so catalog scans never stall order writes
+    private String startMongo(String database) {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        mongoServers.add(server);
+        InetSocketAddress address = server.bind();
+        return "mongodb://127.0.0.1:" + address.getPort() + "/" + database;
+    }
+
+    private ConfigurableApplicationContext start(Class<?> app, Path properties, String mongoUri, String... extraArgs) {
+        if (!Files.isRegularFile(properties)) {
+            throw new IllegalStateException("Not found: " + properties.toAbsolutePath() + " (set --services-dir)");
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=file:" + properties.toAbsolutePath(),
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(app).run(args.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    // with --spans-dir each service appends every request's spans to <dir>/<service>-spans.jsonl
+    private static String[] withSpanFile(LoadTestOptions options, String service, String... args) {
+        if (options.spansDir() == null) {
+            return args;
+        }
+        String[] all = Arrays.copyOf(args, args.length + 2);
+        all[args.length] = "--tracing.file.path=" + Path.of(options.spansDir(), service + "-spans.jsonl").toAbsolutePath();
+        all[args.length + 1] = "--management.tracing.sampling.probability=1.0";
+        return all;
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
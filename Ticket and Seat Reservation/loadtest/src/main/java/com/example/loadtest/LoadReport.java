@@ -0,0 +1,67 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counts for one operation.
+ * Latency is taken from the intended send time, so queueing inside the
+ * system under test is not hidden by a slow client (coordinated omission).
+ */
+final class LoadReport {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    final String name;
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    LoadReport(String name) {
+        this.name = name;
+    }
+
+    void start(long nanos) {
+        startNanos = nanos;
+    }
+
+    void finish(long nanos) {
+        endNanos = nanos;
+    }
+
+    void record(String outcome, long latencyNanos) {
+        latency.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        count(outcome);
+    }
+
+    // outcome without a latency sample, e.g. requests the client shed
+    void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    long completed() {
+        return latency.getTotalCount();
+    }
+
+    void print(PrintStream out) {
+        double seconds = Math.max(endNanos - startNanos, 1) / 1e9;
+        out.printf("%n== %s ==%n", name);
+        out.printf("completed %d in %.1fs, throughput %.1f/s%n", completed(), seconds, completed() / seconds);
+        out.printf("latency ms  p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n",
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(95)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getMaxValue()));
+        new TreeMap<>(outcomes).forEach((outcome, n) -> out.printf("  %-24s %8d%n", outcome, n.sum()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point. Examples (from this directory):
+ *   mvn -q compile exec:java -Dexec.args="--scenario=all --order-rate=100 --duration=30"
+ *   mvn -q compile exec:java -Dexec.args="--scenario=onsale --order-url=http://order:8081
+ *       --payment-url=http://payment:8082 --catalog-url=http://catalog:3001"
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        HttpTarget http = new HttpTarget();
+        EmbeddedStack stack = null;
+        int exitCode = 0;
+        try {
+            stack = options.embedded() ? new EmbeddedStack(options) : null;
+            String orderUrl = stack != null ? stack.orderUrl : options.orderUrl();
+            String paymentUrl = stack != null ? stack.paymentUrl : options.paymentUrl();
+            String catalogUrl = stack != null ? stack.catalogUrl : options.catalogUrl();
+            System.out.printf("order %s, payment %s, catalog %s%n", orderUrl, paymentUrl, catalogUrl);
+
+            CatalogSeed seed = new CatalogSeed(http, catalogUrl, options);
+            Scenarios scenarios = new Scenarios(options, http, orderUrl, paymentUrl, catalogUrl,
+                    stack != null ? stack.gateway() : null, seed);
+
+            System.out.printf("warming up for %ds%n", options.warmupSeconds());
+            scenarios.warmUp();
+
+            List<LoadReport> reports = new ArrayList<>();
+            for (String scenario : options.scenarios()) {
+                System.out.printf("running %s for %ds at %.0f orders/s%n", scenario, options.durationSeconds(), options.orderRate());
+                reports.addAll(scenarios.run(scenario));
+            }
+            reports.forEach(report -> report.print(System.out));
+            // circuit breaker, bulkhead and timeout counters behind the order outcomes
+            System.out.printf("%norder-service payment client: %s%n",
+                    http.get(orderUrl + "/v1/payment-client/stats").join().body());
+        } catch (RuntimeException ex) {
+            log.error("Load test failed", ex);
+            exitCode = 1;
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+        // the services leave non-daemon threads behind
+        System.exit(exitCode);
+    }
+}
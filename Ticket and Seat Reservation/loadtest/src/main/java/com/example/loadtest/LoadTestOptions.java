@@ -0,0 +1,63 @@
+package com.example.loadtest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as --name=value. Without service URLs the
+ * services are started in-process against an in-memory Mongo.
+ */
+record LoadTestOptions(
+        List<String> scenarios,
+        double orderRate,
+        double readRate,
+        int durationSeconds,
+        int warmupSeconds,
+        int maxInFlight,
+        int seatsPerEvent,
+        int contentionSeats,
+        int retryFanout,
+        long gatewayLatencyMs,
+        long slowGatewayLatencyMs,
+        String orderUrl,
+        String paymentUrl,
+        String catalogUrl,
+        String servicesDir,
+        String spansDir) {
+
+    static final List<String> ALL_SCENARIOS = List.of("onsale", "contention", "retries", "slowdown");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String scenario = values.getOrDefault("scenario", "all");
+        return new LoadTestOptions(
+                "all".equals(scenario) ? ALL_SCENARIOS : List.of(scenario.split(",")),
+                Double.parseDouble(values.getOrDefault("order-rate", "100")),
+                Double.parseDouble(values.getOrDefault("read-rate", "200")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Integer.parseInt(values.getOrDefault("seats-per-event", "5000")),
+                Integer.parseInt(values.getOrDefault("contention-seats", "50")),
+                Integer.parseInt(values.getOrDefault("retry-fanout", "3")),
+                Long.parseLong(values.getOrDefault("gateway-latency-ms", "20")),
+                Long.parseLong(values.getOrDefault("slow-gateway-latency-ms", "1500")),
+                values.get("order-url"),
+                values.get("payment-url"),
+                values.get("catalog-url"),
+                values.getOrDefault("services-dir", ".."),
+                values.get("spans-dir"));
+    }
+
+    boolean embedded() {
+        return orderUrl == null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model load: requests start on a Poisson schedule at the target rate
+ * whether or not earlier ones have returned, the way real on-sale traffic
+ * arrives. Each request is an async call that completes with an outcome
+ * label. A client-side in-flight cap keeps the generator from exhausting
+ * memory; arrivals over the cap are counted as SHED.
+ */
+final class OpenLoadGenerator {
+
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    OpenLoadGenerator(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    // request gets the arrival sequence number and returns the outcome label
+    void run(LoadReport report, double ratePerSecond, Duration duration, LongFunction<CompletableFuture<String>> request) {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        report.start(start);
+
+        long intended = start;
+        for (long seq = 0; ; seq++) {
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                report.count("SHED");
+                continue;
+            }
+            long sentAt = intended;
+            CompletableFuture<String> call;
+            try {
+                call = request.apply(seq);
+            } catch (RuntimeException ex) {
+                call = CompletableFuture.failedFuture(ex);
+            }
+            call.whenComplete((outcome, error) -> {
+                report.record(error == null ? outcome : "ERROR:" + rootCause(error).getClass().getSimpleName(),
+                        System.nanoTime() - sentAt);
+                inFlight.release();
+            });
+        }
+
+        // drain what is still in flight
+        try {
+            if (!inFlight.tryAcquire(maxInFlight, 2, TimeUnit.MINUTES)) {
+                report.count("UNFINISHED");
+            } else {
+                inFlight.release(maxInFlight);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        report.finish(System.nanoTime());
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        while (error.getCause() != null && error.getCause() != error) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.loadtest;
+
+import com.example.paymentservice.service.GatewaySimulator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The load scenarios. Each returns one report per operation or phase.
+ * - onsale: every order takes a fresh seat of one event, alongside catalog browsing.
+ * - contention: orders fight over a handful of seats; most should get 409.
+ * - retries: every charge is sent retry-fanout times with one Idempotency-Key;
+ *   exactly one payment may come out of it.
+ * - slowdown: the gateway turns slow for the middle third of the run (embedded only).
+ */
+final class Scenarios {
+
+    private static final BigDecimal PRICE = new BigDecimal("499.00");
+    // seat sequence offsets, so warmup and slowdown phases never reuse on-sale seat codes
+    private static final long WARMUP_SEQ = 100_000_000L;
+    private static final long PHASE_SEQ = 1_000_000L;
+
+    private final LoadTestOptions options;
+    private final HttpTarget http;
+    private final String orderUrl;
+    private final String paymentUrl;
+    private final String catalogUrl;
+    private final GatewaySimulator gateway;
+    private final CatalogSeed seed;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    Scenarios(LoadTestOptions options, HttpTarget http, String orderUrl, String paymentUrl, String catalogUrl,
+              GatewaySimulator gateway, CatalogSeed seed) {
+        this.options = options;
+        this.http = http;
+        this.orderUrl = orderUrl;
+        this.paymentUrl = paymentUrl;
+        this.catalogUrl = catalogUrl;
+        this.gateway = gateway;
+        this.seed = seed;
+    }
+
+    // Unreported order traffic so the services are JIT-compiled and pooled before measuring
+    void warmUp() {
+        if (options.warmupSeconds() <= 0) {
+            return;
+        }
+        LoadReport ignored = new LoadReport("warmup");
+        generator().run(ignored, options.orderRate(), Duration.ofSeconds(options.warmupSeconds()),
+                seq -> placeOrder(seed.onSaleEventId, List.of(seatCode(seed.onSaleSeats, WARMUP_SEQ + seq))));
+    }
+
+    List<LoadReport> run(String scenario) {
+        return switch (scenario) {
+            case "onsale" -> onSale();
+            case "contention" -> contention();
+            case "retries" -> retries();
+            case "slowdown" -> slowdown();
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    private List<LoadReport> onSale() {
+        LoadReport orders = new LoadReport("onsale: POST /v1/orders");
+        LoadReport reads = new LoadReport("onsale: catalog reads");
+        List<String> seats = seed.onSaleSeats;
+        Thread browsing = new Thread(() ->
+                generator().run(reads, options.readRate(), duration(), seq -> catalogRead(seq)), "loadtest-reads");
+        browsing.start();
+        generator().run(orders, options.orderRate(), duration(),
+                seq -> placeOrder(seed.onSaleEventId, List.of(seatCode(seats, seq))));
+        join(browsing);
+        return List.of(orders, reads);
+    }
+
+    private List<LoadReport> contention() {
+        LoadReport orders = new LoadReport("contention: POST /v1/orders (" + seed.contentionSeats.size() + " seats)");
+        List<String> seats = seed.contentionSeats;
+        generator().run(orders, options.orderRate(), duration(), seq -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String first = seats.get(random.nextInt(seats.size()));
+            String second = seats.get(random.nextInt(seats.size()));
+            return placeOrder(seed.contentionEventId, first.equals(second) ? List.of(first) : List.of(first, second));
+        });
+        return List.of(orders);
+    }
+
+    private List<LoadReport> retries() {
+        LoadReport charges = new LoadReport("retries: POST /v1/charges x" + options.retryFanout() + " per key");
+        generator().run(charges, options.orderRate(), duration(), seq -> retriedCharge("lt-" + runId + "-" + seq));
+        return List.of(charges);
+    }
+
+    private List<LoadReport> slowdown() {
+        if (gateway == null) {
+            System.out.println("slowdown needs the embedded stack (the gateway latency is changed in-process); skipped");
+            return List.of();
+        }
+        Duration phase = duration().dividedBy(3);
+        List<LoadReport> reports = new ArrayList<>();
+        long[] latencies = {options.gatewayLatencyMs(), options.slowGatewayLatencyMs(), options.gatewayLatencyMs()};
+        String[] names = {"normal", "slow gateway " + options.slowGatewayLatencyMs() + "ms", "recovered"};
+        for (int i = 0; i < latencies.length; i++) {
+            gateway.setLatency(latencies[i], latencies[i] / 5);
+            LoadReport orders = new LoadReport("slowdown: POST /v1/orders, " + names[i]);
+            long base = PHASE_SEQ * (i + 1);
+            generator().run(orders, options.orderRate(), phase,
+                    seq -> placeOrder(seed.onSaleEventId, List.of(seatCode(seed.onSaleSeats, base + seq))));
+            reports.add(orders);
+        }
+        gateway.setLatency(options.gatewayLatencyMs(), 0);
+        return reports;
+    }
+
+    // Outcome is the order's final OrderStatus, or the HTTP error it was refused with
+    private CompletableFuture<String> placeOrder(String eventId, List<String> seatCodes) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (String seatCode : seatCodes) {
+            lines.add(Map.of("eventId", eventId, "seatCode", seatCode, "price", PRICE));
+        }
+        Map<String, Object> body = Map.of("userId", "lt-user-" + ThreadLocalRandom.current().nextInt(10_000), "lines", lines);
+        return http.post(orderUrl + "/v1/orders", body).thenApply(reply -> switch (reply.status()) {
+            case 200 -> reply.json(http.mapper()).path("status").asText("UNKNOWN");
+            case 409 -> "SEAT_CONFLICT (409)";
+            case 503 -> "UNAVAILABLE (503)";
+            default -> "HTTP_" + reply.status();
+        });
+    }
+
+    private CompletableFuture<String> catalogRead(long seq) {
+        String url = switch ((int) (seq % 4)) {
+            case 0 -> catalogUrl + "/api/events?status=AVAILABLE&size=20";
+            case 1 -> catalogUrl + "/api/events/" + seed.browseEventIds.get((int) (seq % seed.browseEventIds.size()));
+            case 2 -> catalogUrl + "/api/seats/event/" + seed.onSaleEventId;
+            default -> catalogUrl + "/api/events?city=mumbai&type=concert&size=20";
+        };
+        return http.get(url).thenApply(reply -> "HTTP_" + reply.status());
+    }
+
+    // Copies of one charge sent within 50ms of each other, as a client retrying on timeout would
+    private CompletableFuture<String> retriedCharge(String key) {
+        Map<String, Object> charge = Map.of("orderId", key, "amount", PRICE, "currency", "INR", "paymentMethodId", "pm_card_visa");
+        List<CompletableFuture<HttpTarget.Reply>> copies = new ArrayList<>();
+        for (int i = 0; i < options.retryFanout(); i++) {
+            long delay = i == 0 ? 0 : ThreadLocalRandom.current().nextLong(50);
+            copies.add(CompletableFuture.supplyAsync(() -> null,
+                            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> http.post(paymentUrl + "/v1/charges", charge, "Idempotency-Key", key)));
+        }
+        return CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Set<String> paymentIds = new HashSet<>();
+            boolean pending = false;
+            for (CompletableFuture<HttpTarget.Reply> copy : copies) {
+                HttpTarget.Reply reply = copy.join();
+                if (reply.status() != 200 && reply.status() != 402) {
+                    return "HTTP_" + reply.status();
+                }
+                JsonNode json = reply.json(http.mapper());
+                paymentIds.add(json.path("id").asText());
+                pending |= "PENDING".equals(json.path("status").asText());
+            }
+            if (paymentIds.size() > 1) {
+                return "DUPLICATE_CHARGE";
+            }
+            return pending ? "EXACTLY_ONCE (replayed PENDING)" : "EXACTLY_ONCE";
+        });
+    }
+
+    private static String seatCode(List<String> seats, long seq) {
+        // past the seeded seats, codes repeat with a round suffix so they stay unique
+        String seat = seats.get((int) (seq % seats.size()));
+        long round = seq / seats.size();
+        return round == 0 ? seat : seat + "-r" + round;
+    }
+
+    private OpenLoadGenerator generator() {
+        return new OpenLoadGenerator(options.maxInFlight());
+    }
+
+    private Duration duration() {
+        return Duration.ofSeconds(options.durationSeconds());
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
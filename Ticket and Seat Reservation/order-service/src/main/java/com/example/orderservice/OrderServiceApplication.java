@@ -1,11 +1,16 @@
 package com.example.orderservice;
 
+import com.example.shared.tracing.TracingConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@Import(TracingConfig.class)
 public class OrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,27 +1,75 @@
 package com.example.orderservice.controller;
 
 import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import com.example.orderservice.dto.OrderHistoryPage;
+import com.example.orderservice.dto.OrderSummary;
 import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.service.OrderHistoryService;
 import com.example.orderservice.service.OrderService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1/orders")
 public class OrderController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final OrderHistoryService historyService;
 
-    public OrderController(OrderService orderService) { this.orderService = orderService; }
+    public OrderController(OrderService orderService, OrderHistoryService historyService) {
+        this.orderService = orderService;
+        this.historyService = historyService;
+    }
 
+    // async=true persists the order and returns 202 straight away; follow it via
+    // GET /v1/orders/{id} or the /v1/orders/{id}/events stream
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@Valid @RequestBody PlaceOrderRequest req) {
+    public ResponseEntity<Order> placeOrder(@Valid @RequestBody PlaceOrderRequest req,
+                                            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            Order accepted = orderService.submitOrder(req);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                            .replaceQuery(null).path("/{id}").buildAndExpand(accepted.getId()).toUri())
+                    .body(accepted);
+        }
         Order created = orderService.createOrder(req);
         return ResponseEntity.ok(created);
     }
 
+    // A user's orders newest first, without items (GET /{id} has them). Repeat status to
+    // allow several. When more exist, X-Next-Cursor carries the value to pass back as cursor.
+    @GetMapping
+    public ResponseEntity<List<OrderSummary>> getOrderHistory(@RequestParam String userId,
+                                                              @RequestParam(required = false) List<OrderStatus> status,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        OrderCursor.Position after = OrderCursor.decode(userId, cursor);
+        OrderHistoryPage page = historyService.getHistory(userId, status != null ? status : List.of(),
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasMore()) {
+            response.header(NEXT_CURSOR_HEADER,
+                    OrderCursor.encode(userId, page.orders().get(page.orders().size() - 1)));
+        }
+        return response.body(page.orders());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrder(@PathVariable String id) {
         return orderService.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatus(@PathVariable String id) {
+        return orderService.streamStatus(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderSummary;
+import com.example.orderservice.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Opaque continuation token for order history: base64url of "<userId>\n<createdAt epoch ms>\n<order id>".
+// The user id keeps a token to the history that issued it; createdAt is stored to the millisecond.
+final class OrderCursor {
+
+    record Position(OffsetDateTime createdAt, String id) {}
+
+    private OrderCursor() {
+    }
+
+    static String encode(String userId, OrderSummary last) {
+        String raw = userId + '\n' + last.createdAt().toInstant().toEpochMilli() + '\n' + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Where the previous page ended, or null for the first page
+    static Position decode(String userId, String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", -1);
+            if (parts.length != 3 || !parts[0].equals(userId) || parts[2].isEmpty()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            OffsetDateTime createdAt = Instant.ofEpochMilli(Long.parseLong(parts[1])).atOffset(ZoneOffset.UTC);
+            return new Position(createdAt, parts[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
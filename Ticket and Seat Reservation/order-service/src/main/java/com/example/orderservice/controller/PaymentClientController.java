@@ -0,0 +1,22 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.service.PaymentGateway;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/payment-client")
+public class PaymentClientController {
+    private final PaymentGateway paymentGateway;
+
+    public PaymentClientController(PaymentGateway paymentGateway) { this.paymentGateway = paymentGateway; }
+
+    // circuit state, bulkhead headroom and call outcome counters
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return paymentGateway.stats();
+    }
+}
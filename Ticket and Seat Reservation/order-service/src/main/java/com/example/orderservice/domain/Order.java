@@ -1,12 +1,23 @@
 package com.example.orderservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.*;
 
 @Document(collection = "orders")
+// Order history (GET /v1/orders?userId=): newest first, keyset on createdAt/_id, optionally by status
+@CompoundIndexes({
+		@CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+		@CompoundIndex(name = "userId_status_createdAt_id", def = "{'userId': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+		// Reconciliation: stale PENDING_PAYMENT orders oldest first
+		@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}")
+})
 public class Order {
 	@Id
 	private String id;
@@ -69,5 +80,29 @@ public class Order {
 
 	private List<OrderItem> items = new ArrayList<>();
 
+	// holder of the order's seat holds, so reconciliation can confirm or release them; internal only
+	@JsonIgnore
+	private String seatHoldId;
+
+	public String getSeatHoldId() {
+		return seatHoldId;
+	}
+
+	public void setSeatHoldId(String seatHoldId) {
+		this.seatHoldId = seatHoldId;
+	}
+
+	// set while a charge taken for this cancelled order still has to be refunded; unset once it is
+	@Indexed(sparse = true)
+	private Boolean refundDue;
+
+	public Boolean getRefundDue() {
+		return refundDue;
+	}
+
+	public void setRefundDue(Boolean refundDue) {
+		this.refundDue = refundDue;
+	}
+
     // getters/setters
 }
@@ -9,8 +9,6 @@ public class OrderItem {
 	private String seatCode; // snapshot of seat identifier
 	private BigDecimal price;
 
-	private Order order;
-
 	public String getId() {
 		return id;
 	}
@@ -43,12 +41,4 @@ public class OrderItem {
 		this.price = price;
 	}
 
-	public Order getOrder() {
-		return order;
-	}
-
-	public void setOrder(Order order) {
-		this.order = order;
-	}
-
    }
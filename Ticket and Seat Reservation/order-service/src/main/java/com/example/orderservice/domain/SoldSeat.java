@@ -0,0 +1,75 @@
+package com.example.orderservice.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.OffsetDateTime;
+
+// A seat sold to an order; the _id makes a second sale of the same seat a duplicate key
+@Document(collection = "sold_seats")
+public class SoldSeat {
+	@Id
+	private String id;
+
+	private String eventId;
+	private String seatCode;
+
+	@Indexed
+	private String orderId;
+
+	private OffsetDateTime soldAt = OffsetDateTime.now();
+
+	public SoldSeat() {
+	}
+
+	public SoldSeat(String eventId, String seatCode, String orderId) {
+		this.id = id(eventId, seatCode);
+		this.eventId = eventId;
+		this.seatCode = seatCode;
+		this.orderId = orderId;
+	}
+
+	public static String id(String eventId, String seatCode) {
+		return eventId + "/" + seatCode;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(String eventId) {
+		this.eventId = eventId;
+	}
+
+	public String getSeatCode() {
+		return seatCode;
+	}
+
+	public void setSeatCode(String seatCode) {
+		this.seatCode = seatCode;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public void setOrderId(String orderId) {
+		this.orderId = orderId;
+	}
+
+	public OffsetDateTime getSoldAt() {
+		return soldAt;
+	}
+
+	public void setSoldAt(OffsetDateTime soldAt) {
+		this.soldAt = soldAt;
+	}
+}
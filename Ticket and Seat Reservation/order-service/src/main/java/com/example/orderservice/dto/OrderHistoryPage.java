@@ -0,0 +1,6 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+// One page of a user's orders, newest first; hasMore when another page follows the last one
+public record OrderHistoryPage(List<OrderSummary> orders, boolean hasMore) {}
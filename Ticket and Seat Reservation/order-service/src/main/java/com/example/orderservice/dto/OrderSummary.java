@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// List view of an order: everything but the items, which are read from Mongo only for GET /v1/orders/{id}
+public record OrderSummary(String id,
+                           String userId,
+                           OrderStatus status,
+                           BigDecimal total,
+                           OffsetDateTime createdAt) {
+
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(order.getId(), order.getUserId(), order.getStatus(), order.getTotal(),
+                order.getCreatedAt());
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.orderservice.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+    public OrderQueueFullException(String message) { super(message); }
+}
@@ -0,0 +1,7 @@
+package com.example.orderservice.exception;
+
+// Payment-service could not be reached in time; the order stays PENDING_PAYMENT and can be retried
+public class PaymentUnavailableException extends RuntimeException {
+    public PaymentUnavailableException(String message) { super(message); }
+    public PaymentUnavailableException(String message, Throwable cause) { super(message, cause); }
+}
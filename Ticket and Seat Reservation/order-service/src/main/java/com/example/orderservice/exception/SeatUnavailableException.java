@@ -0,0 +1,5 @@
+package com.example.orderservice.exception;
+
+public class SeatUnavailableException extends RuntimeException {
+    public SeatUnavailableException(String message) { super(message); }
+}
@@ -1,9 +1,14 @@
 package com.example.orderservice.feign;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import com.example.orderservice.feign.dto.BatchChargeRequest;
+import com.example.orderservice.feign.dto.BatchChargeResponse;
 import com.example.orderservice.feign.dto.ChargeRequest;
 import com.example.orderservice.feign.dto.ChargeResponse;
 
@@ -11,4 +16,15 @@ import com.example.orderservice.feign.dto.ChargeResponse;
 public interface PaymentClient {
     @PostMapping("/v1/charges")
     ChargeResponse charge(@RequestHeader("Idempotency-Key") String idempotencyKey, @RequestBody ChargeRequest req);
+
+    // Recorded outcome for an idempotency key without charging; 404 (FeignException.NotFound) when none
+    @GetMapping("/v1/charges")
+    ChargeResponse lookup(@RequestParam("idempotencyKey") String idempotencyKey);
+
+    @PostMapping("/v1/charges:batch")
+    BatchChargeResponse chargeBatch(@RequestBody BatchChargeRequest req);
+
+    // Refund a successful charge by its payment id; 400 (FeignException.BadRequest) when it is not SUCCESS
+    @PostMapping("/v1/refunds/{paymentId}")
+    String refund(@PathVariable("paymentId") String paymentId);
 }
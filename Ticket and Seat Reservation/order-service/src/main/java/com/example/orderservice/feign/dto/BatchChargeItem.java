@@ -0,0 +1,10 @@
+package com.example.orderservice.feign.dto;
+
+import java.math.BigDecimal;
+
+public record BatchChargeItem(String idempotencyKey, String orderId, BigDecimal amount, String currency, String paymentMethodId) {
+
+    public static BatchChargeItem of(String idempotencyKey, ChargeRequest req) {
+        return new BatchChargeItem(idempotencyKey, req.orderId(), req.amount(), req.currency(), req.paymentMethodId());
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.orderservice.feign.dto;
+
+import java.util.List;
+
+public record BatchChargeRequest(List<BatchChargeItem> items) {}
@@ -0,0 +1,3 @@
+package com.example.orderservice.feign.dto;
+
+public record BatchChargeResult(String idempotencyKey, String id, String status, String message) {}
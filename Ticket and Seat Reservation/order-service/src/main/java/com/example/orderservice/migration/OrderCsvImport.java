@@ -0,0 +1,101 @@
+package com.example.orderservice.migration;
+
+import com.example.orderservice.config.MongoConfig;
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderItem;
+import com.example.orderservice.domain.OrderStatus;
+import com.example.orderservice.domain.SoldSeat;
+import com.example.shared.csvimport.BulkCsvLoader;
+import com.example.shared.csvimport.CsvImportJob;
+import com.example.shared.csvimport.CsvRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bulk import of orders and their tickets from CSV (the seed-data/etsr_orders.csv
+ * and etsr_tickets.csv layout). A separate main class that imports and exits;
+ * run with --order.import.dir=../seed-data.
+ * Tickets become order items, added with $addToSet so a resumed run does not
+ * add them twice; payment_status is left to payment-service's own import.
+ * Tickets of CONFIRMED orders are also written to sold_seats, so their seats
+ * cannot be sold again; where two confirmed orders list the same seat, the
+ * first one written keeps it. CREATED orders were never paid and nothing
+ * here moves them forward, so they are imported as CANCELLED.
+ */
+@SpringBootConfiguration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@Import(MongoConfig.class)
+@Profile(CsvImportJob.PROFILE)
+public class OrderCsvImport extends CsvImportJob {
+
+    public OrderCsvImport(MongoTemplate mongoTemplate,
+                          @Value("${order.import.dir}") String dir,
+                          @Value("${order.import.batch-size:1000}") int batchSize,
+                          @Value("${order.import.parallelism:4}") int parallelism,
+                          @Value("${order.import.restart:false}") boolean restart) {
+        super(mongoTemplate, dir, batchSize, parallelism, restart);
+    }
+
+    public static void main(String[] args) {
+        CsvImportJob.run(OrderCsvImport.class, args);
+    }
+
+    @Override
+    protected void importFiles(BulkCsvLoader loader) throws IOException, InterruptedException {
+        load(loader, "etsr_orders.csv", Order.class, (bulk, row) -> bulk.insert(toOrder(row)));
+        load(loader, "etsr_tickets.csv", Order.class, (bulk, row) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(row.get("order_id"))),
+                new Update().addToSet("items", toItem(row))));
+        Set<String> confirmed = confirmedOrderIds();
+        load(loader, "etsr_tickets.csv", "etsr_tickets.csv#sold_seats", SoldSeat.class,
+                row -> confirmed.contains(row.optional("order_id")), (bulk, row) -> bulk.insert(toSoldSeat(row)));
+    }
+
+    private Set<String> confirmedOrderIds() {
+        Query query = Query.query(Criteria.where("status").is(OrderStatus.CONFIRMED));
+        query.fields().include("_id");
+        Set<String> ids = new HashSet<>();
+        mongoTemplate.find(query, Order.class).forEach(order -> ids.add(order.getId()));
+        return ids;
+    }
+
+    static Order toOrder(CsvRow row) {
+        Order order = new Order();
+        order.setId(row.get("order_id"));
+        order.setUserId(row.get("user_id"));
+        order.setStatus(toStatus(row.get("status")));
+        order.setTotal(row.getDecimal("order_total"));
+        order.setCreatedAt(row.getTimestamp("created_at").atOffset(ZoneOffset.UTC));
+        return order;
+    }
+
+    static OrderStatus toStatus(String value) {
+        OrderStatus status = OrderStatus.valueOf(value.toUpperCase());
+        return status == OrderStatus.CREATED ? OrderStatus.CANCELLED : status;
+    }
+
+    static OrderItem toItem(CsvRow row) {
+        OrderItem item = new OrderItem();
+        item.setId(row.get("ticket_id"));
+        item.setEventId(row.get("event_id"));
+        item.setSeatCode(row.get("seat_id"));
+        item.setPrice(row.getDecimal("price_paid"));
+        return item;
+    }
+
+    static SoldSeat toSoldSeat(CsvRow row) {
+        return new SoldSeat(row.get("event_id"), row.get("seat_id"), row.get("order_id"));
+    }
+}
@@ -4,6 +4,5 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.example.orderservice.domain.Order;
 
-public interface OrderRepository extends MongoRepository<Order, String> {}
-
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {}
 
@@ -0,0 +1,28 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // Set status to next only if it is still expected; true when the update applied
+    boolean transitionStatus(String id, OrderStatus expected, OrderStatus next);
+
+    // Move to CANCELLED only if the status is still expected, flagging the charge for refund in the same update
+    boolean cancelForRefund(String id, OrderStatus expected);
+
+    // Flag the charge of an order that did not end up CONFIRMED for refund; false when it is CONFIRMED
+    boolean markRefundDue(String id);
+
+    // Clear the refund flag once nothing is left to refund
+    void clearRefundDue(String id);
+
+    // A user's orders newest first, without items, starting after (beforeCreatedAt, beforeId) when given.
+    // Empty statuses means any status.
+    List<Order> findHistory(String userId, Collection<OrderStatus> statuses,
+                            OffsetDateTime beforeCreatedAt, String beforeId, int limit);
+}
@@ -0,0 +1,66 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean transitionStatus(String id, OrderStatus expected, OrderStatus next) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").is(expected));
+        return mongoTemplate.updateFirst(query, Update.update("status", next), Order.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public boolean cancelForRefund(String id, OrderStatus expected) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").is(expected));
+        Update update = Update.update("status", OrderStatus.CANCELLED).set("refundDue", true);
+        return mongoTemplate.updateFirst(query, update, Order.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public boolean markRefundDue(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").ne(OrderStatus.CONFIRMED));
+        return mongoTemplate.updateFirst(query, Update.update("refundDue", true), Order.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public void clearRefundDue(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), new Update().unset("refundDue"), Order.class);
+    }
+
+    // Served by userId_createdAt_id, or userId_status_createdAt_id when filtering by status
+    @Override
+    public List<Order> findHistory(String userId, Collection<OrderStatus> statuses,
+                                   OffsetDateTime beforeCreatedAt, String beforeId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (!statuses.isEmpty()) {
+            criteria.and("status").in(statuses);
+        }
+        if (beforeCreatedAt != null) {
+            criteria.orOperator(
+                    Criteria.where("createdAt").lt(beforeCreatedAt),
+                    Criteria.where("createdAt").is(beforeCreatedAt).and("_id").lt(beforeId));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(limit);
+        query.fields().exclude("items");
+        return mongoTemplate.find(query, Order.class);
+    }
+}
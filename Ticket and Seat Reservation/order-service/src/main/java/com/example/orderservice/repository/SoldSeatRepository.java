@@ -0,0 +1,10 @@
+package com.example.orderservice.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.example.orderservice.domain.SoldSeat;
+
+public interface SoldSeatRepository extends MongoRepository<SoldSeat, String>, SoldSeatRepositoryCustom {
+
+    void deleteByOrderId(String orderId);
+}
@@ -0,0 +1,12 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.SoldSeat;
+
+import java.util.List;
+
+public interface SoldSeatRepositoryCustom {
+
+    // Insert the seats for one order, all or none; true when every seat is now sold to that order.
+    // Seats the order already owns count as sold, so confirming twice is harmless.
+    boolean sellAll(String orderId, List<SoldSeat> seats);
+}
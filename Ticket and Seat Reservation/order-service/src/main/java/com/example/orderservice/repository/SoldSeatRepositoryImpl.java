@@ -0,0 +1,37 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.domain.SoldSeat;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class SoldSeatRepositoryImpl implements SoldSeatRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SoldSeatRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean sellAll(String orderId, List<SoldSeat> seats) {
+        try {
+            // unordered, so one seat sold elsewhere does not stop the rest from being checked
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SoldSeat.class).insert(seats).execute();
+            return true;
+        } catch (BulkOperationException e) {
+            List<String> ids = seats.stream().map(SoldSeat::getId).toList();
+            Query owned = Query.query(Criteria.where("_id").in(ids).and("orderId").is(orderId));
+            if (mongoTemplate.count(owned, SoldSeat.class) == seats.size()) {
+                return true; // the duplicates were this order's own seats
+            }
+            // another order has at least one seat: give back what this call took
+            mongoTemplate.remove(owned, SoldSeat.class);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import com.example.orderservice.dto.OrderHistoryPage;
+import com.example.orderservice.dto.OrderSummary;
+import com.example.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// "My tickets": a user's orders newest first, one keyset page at a time
+@Service
+public class OrderHistoryService {
+
+    private final OrderRepository orderRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public OrderHistoryService(OrderRepository orderRepository,
+                               @Value("${order.history.default-page-size:20}") int defaultPageSize,
+                               @Value("${order.history.max-page-size:100}") int maxPageSize) {
+        this.orderRepository = orderRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Pass the createdAt/id of the last order on the previous page to continue; null for the first page
+    public OrderHistoryPage getHistory(String userId, Collection<OrderStatus> statuses,
+                                       OffsetDateTime beforeCreatedAt, String beforeId, Integer size) {
+        int pageSize = pageSize(size);
+        // one extra row tells whether another page follows without a count
+        List<Order> orders = orderRepository.findHistory(userId, statuses, beforeCreatedAt, beforeId, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        List<OrderSummary> page = orders.stream().limit(pageSize).map(OrderSummary::of).toList();
+        return new OrderHistoryPage(page, hasMore);
+    }
+
+    // Clamp the requested page size to [1, max]
+    int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
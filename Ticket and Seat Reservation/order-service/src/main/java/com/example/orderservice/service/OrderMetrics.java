@@ -0,0 +1,50 @@
+package com.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Each stage of order placement is an observation, recorded as the
+ * order.create.stage{stage} timer and as a child span of the request.
+ * Placement outcomes are counted in order.create.outcome{mode,outcome}.
+ * Histogram buckets come from management.metrics.distribution.* in application.properties.
+ */
+@Component
+public class OrderMetrics {
+
+    public enum Stage { HOLD, BUILD, INSERT, CHARGE, COMPLETE }
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public OrderMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+    }
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        String name = stage.name().toLowerCase();
+        return Observation.createNotStarted("order.create.stage", observations)
+                .contextualName("order " + name)
+                .lowCardinalityKeyValue("stage", name)
+                .observe(work);
+    }
+
+    // mode is sync or async; outcome is the final OrderStatus or the reason placement was refused
+    public void outcome(String mode, String outcome) {
+        outcomes.computeIfAbsent(mode + ':' + outcome, key -> Counter.builder("order.create.outcome")
+                        .description("Order placements by result")
+                        .tag("mode", mode)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.orderservice.service;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for asynchronous payment calls.
+ * Callers reserve a slot before persisting anything, so a full queue is
+ * reported to the client instead of leaving an order nobody will process.
+ * With virtual threads enabled each task gets its own virtual thread and
+ * {@code workers} only caps how many payment calls run at once.
+ */
+@Component
+public class OrderPaymentQueue {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final Semaphore slots;
+    private final Semaphore running;
+    private final Executor executor;
+    private final ThreadPoolExecutor pool;
+
+    public OrderPaymentQueue(@Value("${order.async.workers:16}") int workers,
+                             @Value("${order.async.queue-capacity:1000}") int queueCapacity,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.slots = new Semaphore(workers + queueCapacity);
+        this.running = new Semaphore(workers);
+        if (virtualThreads) {
+            this.pool = null;
+            this.executor = new VirtualThreadTaskExecutor("order-payment-");
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, "order-payment-" + threadCount.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            this.executor = pool;
+        }
+    }
+
+    public boolean tryReserve() {
+        return slots.tryAcquire();
+    }
+
+    public void cancelReservation() {
+        slots.release();
+    }
+
+    // Run a task on a slot obtained from tryReserve; the slot is freed when it finishes.
+    // The task runs inside the submitter's trace context.
+    public void submit(Runnable task) {
+        Runnable traced = SNAPSHOTS.captureAll().wrap(task);
+        executor.execute(() -> {
+            try {
+                running.acquireUninterruptibly();
+                try {
+                    traced.run();
+                } finally {
+                    running.release();
+                }
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdown();
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
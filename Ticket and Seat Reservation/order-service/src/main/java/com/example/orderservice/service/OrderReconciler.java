@@ -0,0 +1,239 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import com.example.orderservice.feign.PaymentClient;
+import com.example.orderservice.feign.dto.ChargeResponse;
+import com.example.orderservice.repository.OrderRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Settles orders left in PENDING_PAYMENT, by a crash in the middle of
+ * {@link OrderService#createOrder} or by a charge whose outcome was unknown.
+ * Each run streams the PENDING_PAYMENT orders older than stale-after through
+ * the status_createdAt index, oldest first and a cursor batch at a time, and
+ * asks payment-service what was recorded under the order's Idempotency-Key
+ * (a read, never a new charge) with at most parallelism lookups in flight.
+ * SUCCESS sells the order's seats again through {@link SeatHoldManager}
+ * (its holds may have lapsed long ago) and only then confirms it; if a seat
+ * went to someone else the order is cancelled and refunded instead. FAILED,
+ * REFUNDED or no charge at all cancels it, and PENDING leaves it for a later
+ * run. Every cancellation sets refundDue in the same update and goes through
+ * {@link OrderRefunds}, so a charge that does exist is never kept.
+ * Transitions are conditional on PENDING_PAYMENT, so an order settled
+ * meanwhile is left alone. A failed
+ * lookup ends the run early instead of hammering an unavailable payment-service.
+ * Results are counted in order.reconcile.resolved{outcome} and the stale
+ * backlog left after a run is the order.reconcile.backlog gauge.
+ */
+@Component
+public class OrderReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReconciler.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderRepository orderRepository;
+    private final PaymentClient paymentClient;
+    private final SeatHoldManager seatHolds;
+    private final OrderRefunds refunds;
+    private final OrderStatusStream statusStream;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long staleAfterMillis;
+    private final int batchSize;
+    private final int parallelism;
+    private final Semaphore slots;
+    private final ExecutorService pool;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public OrderReconciler(MongoTemplate mongoTemplate, OrderRepository orderRepository,
+                           PaymentClient paymentClient, SeatHoldManager seatHolds, OrderRefunds refunds,
+                           OrderStatusStream statusStream, MeterRegistry registry,
+                           @Value("${order.reconcile.enabled:true}") boolean enabled,
+                           @Value("${order.reconcile.stale-after-ms:600000}") long staleAfterMillis,
+                           @Value("${order.reconcile.batch-size:500}") int batchSize,
+                           @Value("${order.reconcile.parallelism:4}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.orderRepository = orderRepository;
+        this.paymentClient = paymentClient;
+        this.seatHolds = seatHolds;
+        this.refunds = refunds;
+        this.statusStream = statusStream;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.staleAfterMillis = staleAfterMillis;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.slots = new Semaphore(parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "order-reconcile-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("order.reconcile.backlog", backlog, AtomicLong::get)
+                .description("Stale PENDING_PAYMENT orders left after the last reconciliation run")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${order.reconcile.interval-ms:60000}",
+            fixedDelayString = "${order.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        OffsetDateTime cutoff = OffsetDateTime.now().minusNanos(staleAfterMillis * 1_000_000L);
+        Query query = stalePending(cutoff)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .cursorBatchSize(batchSize);
+        query.fields().include("status", "seatHoldId", "items.eventId", "items.seatCode");
+
+        AtomicBoolean unavailable = new AtomicBoolean();
+        long submitted = 0;
+        try (Stream<Order> stream = mongoTemplate.stream(query, Order.class)) {
+            Iterator<Order> it = stream.iterator();
+            while (it.hasNext() && !unavailable.get()) {
+                Order order = it.next();
+                slots.acquireUninterruptibly();
+                try {
+                    pool.execute(() -> {
+                        try {
+                            resolve(order);
+                        } catch (RuntimeException ex) {
+                            log.warn("Could not reconcile order {}: {}", order.getId(), ex.getMessage());
+                            count("error");
+                            unavailable.set(true);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    slots.release();
+                    break; // shutting down
+                }
+                submitted++;
+            }
+        } finally {
+            // wait for the lookups still in flight before reporting
+            slots.acquireUninterruptibly(parallelism);
+            slots.release(parallelism);
+        }
+
+        long remaining = mongoTemplate.count(stalePending(cutoff), Order.class);
+        backlog.set(remaining);
+        if (submitted > 0 || remaining > 0) {
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Reconciled {} stale PENDING_PAYMENT orders in {} ms ({} per second), {} still pending{}",
+                    submitted, millis, submitted * 1000 / millis, remaining,
+                    unavailable.get() ? " (stopped early, payment-service lookup failed)" : "");
+        }
+    }
+
+    private void resolve(Order order) {
+        ChargeResponse charge;
+        try {
+            charge = paymentClient.lookup(OrderService.chargeKey(order.getId()));
+        } catch (FeignException.NotFound ex) {
+            charge = null;
+        }
+
+        if (charge != null && "PENDING".equalsIgnoreCase(charge.status())) {
+            count("pending"); // payment-service reconciles it first
+            return;
+        }
+        // orders placed before holds were recorded get a holder of their own
+        String holder = order.getSeatHoldId() != null ? order.getSeatHoldId() : UUID.randomUUID().toString();
+        List<SeatHoldManager.SeatKey> seats = order.getItems().stream()
+                .map(item -> new SeatHoldManager.SeatKey(item.getEventId(), item.getSeatCode()))
+                .toList();
+
+        if (charge != null && "SUCCESS".equalsIgnoreCase(charge.status())) {
+            if (seatHolds.confirmAll(holder, order.getId(), seats)) {
+                confirm(order);
+                return;
+            }
+            log.warn("Seats for paid order {} were sold to someone else; cancelling and refunding", order.getId());
+            count("seat_conflict");
+        }
+        // no charge, FAILED, REFUNDED, or paid without its seats
+        cancel(order, holder, seats);
+    }
+
+    private void confirm(Order order) {
+        if (!orderRepository.transitionStatus(order.getId(), OrderStatus.PENDING_PAYMENT, OrderStatus.CONFIRMED)) {
+            OrderStatus stored = orderRepository.findById(order.getId()).map(Order::getStatus).orElse(null);
+            if (stored != OrderStatus.CONFIRMED) {
+                // settled elsewhere meanwhile without its seats: give them back and refund
+                seatHolds.unsellAll(order.getId());
+                if (orderRepository.markRefundDue(order.getId())) {
+                    refunds.refund(order.getId());
+                }
+            }
+            count("skipped");
+            return;
+        }
+        order.setStatus(OrderStatus.CONFIRMED);
+        statusStream.publish(order);
+        count("confirmed");
+    }
+
+    private void cancel(Order order, String holder, List<SeatHoldManager.SeatKey> seats) {
+        if (!orderRepository.cancelForRefund(order.getId(), OrderStatus.PENDING_PAYMENT)) {
+            count("skipped");
+            return;
+        }
+        seatHolds.releaseAll(holder, seats);
+        order.setStatus(OrderStatus.CANCELLED);
+        statusStream.publish(order);
+        refunds.refund(order.getId());
+        count("cancelled");
+    }
+
+    // Served by status_createdAt
+    private static Query stalePending(OffsetDateTime cutoff) {
+        return Query.query(Criteria.where("status").is(OrderStatus.PENDING_PAYMENT).and("createdAt").lt(cutoff));
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> Counter.builder("order.reconcile.resolved")
+                        .description("Stale PENDING_PAYMENT orders handled by reconciliation, by result")
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
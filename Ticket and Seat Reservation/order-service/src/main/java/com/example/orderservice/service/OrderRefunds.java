@@ -0,0 +1,110 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.feign.PaymentClient;
+import com.example.orderservice.feign.dto.ChargeResponse;
+import com.example.orderservice.repository.OrderRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refunds charges taken for orders that ended up CANCELLED, e.g. when the
+ * seats were sold to someone else by the time the payment succeeded. Such
+ * orders are cancelled with refundDue set in the same update. The charge is
+ * looked up under the order's Idempotency-Key: SUCCESS is refunded, FAILED,
+ * REFUNDED or no charge at all needs nothing, and PENDING waits. Anything not
+ * settled right away (payment-service down, charge still PENDING) keeps the
+ * flag and is retried every retry-interval. Refunding twice is harmless:
+ * payment-service rejects a refund of a charge that is no longer SUCCESS.
+ * Results are counted in order.refund{outcome}.
+ */
+@Component
+public class OrderRefunds {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRefunds.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderRepository orderRepository;
+    private final PaymentClient paymentClient;
+    private final MeterRegistry registry;
+    private final int batchSize;
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public OrderRefunds(MongoTemplate mongoTemplate, OrderRepository orderRepository, PaymentClient paymentClient,
+                        MeterRegistry registry, @Value("${order.refund.batch-size:100}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.orderRepository = orderRepository;
+        this.paymentClient = paymentClient;
+        this.registry = registry;
+        this.batchSize = batchSize;
+    }
+
+    // Refund an order flagged refundDue now if possible; otherwise the retry picks it up
+    public void refund(String orderId) {
+        try {
+            if (settle(orderId)) {
+                orderRepository.clearRefundDue(orderId);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Refund for order {} deferred: {}", orderId, ex.getMessage());
+            count("deferred");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${order.refund.retry-interval-ms:60000}",
+            fixedDelayString = "${order.refund.retry-interval-ms:60000}")
+    public void retryDue() {
+        Query query = Query.query(Criteria.where("refundDue").is(true)).limit(batchSize);
+        query.fields().include("_id");
+        for (Order order : mongoTemplate.find(query, Order.class)) {
+            refund(order.getId());
+        }
+    }
+
+    // true once nothing is left to refund for the order
+    private boolean settle(String orderId) {
+        ChargeResponse charge;
+        try {
+            charge = paymentClient.lookup(OrderService.chargeKey(orderId));
+        } catch (FeignException.NotFound ex) {
+            count("no_charge");
+            return true;
+        }
+        if ("PENDING".equalsIgnoreCase(charge.status())) {
+            count("pending"); // payment-service reconciles it first
+            return false;
+        }
+        if (!"SUCCESS".equalsIgnoreCase(charge.status())) {
+            count("no_charge");
+            return true;
+        }
+        try {
+            paymentClient.refund(charge.id());
+            log.info("Refunded charge {} of cancelled order {}", charge.id(), orderId);
+            count("refunded");
+        } catch (FeignException.BadRequest ex) {
+            count("no_charge"); // refunded meanwhile
+        }
+        return true;
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> Counter.builder("order.refund")
+                        .description("Refunds of charges for cancelled orders, by result")
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment();
+    }
+}
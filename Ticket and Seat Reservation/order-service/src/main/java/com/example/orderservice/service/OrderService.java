@@ -2,27 +2,146 @@ package com.example.orderservice.service;
 
 import com.example.orderservice.domain.*;
 import com.example.orderservice.dto.PlaceOrderRequest;
-import com.example.orderservice.feign.PaymentClient;
+import com.example.orderservice.exception.BadRequestException;
+import com.example.orderservice.exception.OrderQueueFullException;
+import com.example.orderservice.exception.PaymentUnavailableException;
+import com.example.orderservice.exception.SeatUnavailableException;
 import com.example.orderservice.feign.dto.ChargeRequest;
 import com.example.orderservice.feign.dto.ChargeResponse;
 import com.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class OrderService {
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
-    private final PaymentClient paymentClient;
+    private final PaymentGateway paymentGateway;
+    private final SeatHoldManager seatHolds;
+    private final OrderRefunds refunds;
+    private final OrderPaymentQueue paymentQueue;
+    private final OrderStatusStream statusStream;
+    private final OrderMetrics metrics;
 
-    public OrderService(OrderRepository orderRepository, PaymentClient paymentClient) {
+    public OrderService(OrderRepository orderRepository, PaymentGateway paymentGateway, SeatHoldManager seatHolds,
+                        OrderRefunds refunds, OrderPaymentQueue paymentQueue, OrderStatusStream statusStream, OrderMetrics metrics) {
         this.orderRepository = orderRepository;
-        this.paymentClient = paymentClient;
+        this.paymentGateway = paymentGateway;
+        this.seatHolds = seatHolds;
+        this.refunds = refunds;
+        this.paymentQueue = paymentQueue;
+        this.statusStream = statusStream;
+        this.metrics = metrics;
     }
 
+    // Synchronous placement: returns once payment has been decided
     public Order createOrder(PlaceOrderRequest req) {
+        String holder = UUID.randomUUID().toString();
+        List<SeatHoldManager.SeatKey> seats = holdSeats(holder, req, "sync");
+
+        Order saved;
+        try {
+            saved = insertPending(req, holder);
+        } catch (RuntimeException ex) {
+            metrics.outcome("sync", "ERROR");
+            seatHolds.releaseAll(holder, seats);
+            throw ex;
+        }
+        try {
+            Order done = chargeAndComplete(saved, holder, seats);
+            metrics.outcome("sync", done.getStatus().name());
+            return done;
+        } catch (RuntimeException ex) {
+            metrics.outcome("sync", ex instanceof PaymentUnavailableException ? "PAYMENT_UNAVAILABLE" : "ERROR");
+            // the charge may have gone through: the order stays PENDING_PAYMENT and keeps its seats for reconciliation
+            seatHolds.extendAll(holder, seats);
+            throw ex;
+        }
+    }
+
+    // Asynchronous placement: persists the order once as PENDING_PAYMENT and
+    // charges it on the payment queue. Rejected up front when the queue is full.
+    public Order submitOrder(PlaceOrderRequest req) {
+        String holder = UUID.randomUUID().toString();
+        List<SeatHoldManager.SeatKey> seats = holdSeats(holder, req, "async");
+
+        if (!paymentQueue.tryReserve()) {
+            seatHolds.releaseAll(holder, seats);
+            metrics.outcome("async", "QUEUE_FULL");
+            throw new OrderQueueFullException("Order queue is full, retry later");
+        }
+
+        Order saved;
+        try {
+            saved = insertPending(req, holder);
+        } catch (RuntimeException ex) {
+            paymentQueue.cancelReservation();
+            seatHolds.releaseAll(holder, seats);
+            throw ex;
+        }
+
+        paymentQueue.submit(() -> completeAsync(saved, holder, seats));
+        return saved;
+    }
+
+    public Optional<Order> findById(String id) {
+        return orderRepository.findById(id);
+    }
+
+    // Subscribe first, then send the stored status, so no transition is missed in between
+    public Optional<SseEmitter> streamStatus(String id) {
+        SseEmitter emitter = statusStream.subscribe(id);
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isEmpty()) {
+            statusStream.unsubscribe(id, emitter);
+            return Optional.empty();
+        }
+        statusStream.send(id, emitter, order.get());
+        return Optional.of(emitter);
+    }
+
+    // hold the seats before any write or payment call; conflicts are rejected here
+    private List<SeatHoldManager.SeatKey> holdSeats(String holder, PlaceOrderRequest req, String mode) {
+        List<SeatHoldManager.SeatKey> seats = req.lines.stream()
+                .map(line -> new SeatHoldManager.SeatKey(line.eventId, line.seatCode))
+                .toList();
+        // a holder re-claims its own hold, so a seat listed twice would pass claimAll and only fail at sale
+        Set<SeatHoldManager.SeatKey> distinct = new HashSet<>();
+        for (SeatHoldManager.SeatKey seat : seats) {
+            if (!distinct.add(seat)) {
+                metrics.outcome(mode, "DUPLICATE_SEAT");
+                throw new BadRequestException("Seat " + seat.seatCode() + " for event " + seat.eventId() + " is listed more than once");
+            }
+        }
+        SeatHoldManager.SeatKey taken = metrics.time(OrderMetrics.Stage.HOLD, () -> seatHolds.claimAll(holder, seats));
+        if (taken != null) {
+            metrics.outcome(mode, "SEAT_CONFLICT");
+            throw new SeatUnavailableException("Seat " + taken.seatCode() + " for event " + taken.eventId() + " is not available");
+        }
+        return seats;
+    }
+
+    // CREATED -> PENDING_PAYMENT happens before the first write, so the order is inserted once
+    private Order insertPending(PlaceOrderRequest req, String holder) {
+        Order o = metrics.time(OrderMetrics.Stage.BUILD, () -> buildOrder(req));
+        o.setStatus(OrderStatus.PENDING_PAYMENT);
+        o.setSeatHoldId(holder);
+        Order saved = metrics.time(OrderMetrics.Stage.INSERT, () -> orderRepository.insert(o));
+        statusStream.publish(saved);
+        return saved;
+    }
+
+    private Order buildOrder(PlaceOrderRequest req) {
         Order o = new Order();
         o.setUserId(req.userId);
         o.setStatus(OrderStatus.CREATED);
@@ -33,7 +152,6 @@ public class OrderService {
             it.setEventId(line.eventId);
             it.setSeatCode(line.seatCode);
             it.setPrice(line.price);
-            it.setOrder(o);
             o.getItems().add(it);
             subtotal = subtotal.add(line.price);
         }
@@ -41,30 +159,91 @@ public class OrderService {
         BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.05));
         BigDecimal total = subtotal.add(tax);
         o.setTotal(total);
+        return o;
+    }
 
-        Order saved = orderRepository.save(o);
-
-        // move to PENDING_PAYMENT and call payment service (synchronous example)
-        saved.setStatus(OrderStatus.PENDING_PAYMENT);
-        orderRepository.save(saved);
-
-        String idempotencyKey = UUID.randomUUID().toString();
-    ChargeRequest cr = new ChargeRequest(saved.getId(), saved.getTotal(), "INR", "pm_card_visa");
-        ChargeResponse resp = paymentClient.charge(idempotencyKey, cr);
+    private Order chargeAndComplete(Order saved, String holder, List<SeatHoldManager.SeatKey> seats) {
+        // keyed by order, so a hedged or repeated charge for the same order is never taken twice
+        String idempotencyKey = chargeKey(saved.getId());
+        ChargeRequest cr = new ChargeRequest(saved.getId(), saved.getTotal(), "INR", "pm_card_visa");
+        ChargeResponse resp = metrics.time(OrderMetrics.Stage.CHARGE, () -> paymentGateway.charge(idempotencyKey, cr));
 
         if ("SUCCESS".equalsIgnoreCase(resp.status())) {
-            saved.setStatus(OrderStatus.CONFIRMED);
-            orderRepository.save(saved);
+            // sell the seats before confirming; a lapsed hold is re-taken only if nobody else has the seat
+            if (!seatHolds.confirmAll(holder, saved.getId(), seats)) {
+                log.warn("Seats for order {} were taken after its holds lapsed; cancelling and refunding", saved.getId());
+                seatHolds.releaseAll(holder, seats);
+                return cancelAndRefund(saved);
+            }
+            saved = completePayment(saved, OrderStatus.CONFIRMED);
+            if (saved.getStatus() != OrderStatus.CONFIRMED) {
+                // settled elsewhere meanwhile (e.g. cancelled by reconciliation): seats and charge go back
+                seatHolds.unsellAll(saved.getId());
+                if (orderRepository.markRefundDue(saved.getId())) {
+                    refunds.refund(saved.getId());
+                }
+                return saved;
+            }
             // generate tickets (delegated to ticketing or same service)
         } else {
-            saved.setStatus(OrderStatus.CANCELLED);
-            orderRepository.save(saved);
+            saved = completePayment(saved, OrderStatus.CANCELLED);
+            seatHolds.releaseAll(holder, seats);
         }
 
         return saved;
     }
 
-    public Optional<Order> findById(String id) {
-        return orderRepository.findById(id);
+    // Idempotency-Key of the charge for an order, also used to look the charge up during reconciliation
+    static String chargeKey(String orderId) {
+        return "order-" + orderId;
+    }
+
+    // Single conditional $set on status; if the order already left PENDING_PAYMENT,
+    // return what is stored instead of overwriting it
+    private Order completePayment(Order order, OrderStatus next) {
+        String id = order.getId();
+        if (metrics.time(OrderMetrics.Stage.COMPLETE,
+                () -> orderRepository.transitionStatus(id, OrderStatus.PENDING_PAYMENT, next))) {
+            order.setStatus(next);
+        } else {
+            log.warn("Order {} was no longer PENDING_PAYMENT when moving to {}", order.getId(), next);
+            order = orderRepository.findById(order.getId()).orElse(order);
+        }
+        statusStream.publish(order);
+        return order;
+    }
+
+    // The charge went through but the order cannot stand: cancel it flagged for refund, then refund
+    private Order cancelAndRefund(Order order) {
+        if (orderRepository.cancelForRefund(order.getId(), OrderStatus.PENDING_PAYMENT)) {
+            order.setStatus(OrderStatus.CANCELLED);
+            refunds.refund(order.getId());
+        } else {
+            log.warn("Order {} was no longer PENDING_PAYMENT when cancelling for refund", order.getId());
+            order = orderRepository.findById(order.getId()).orElse(order);
+        }
+        statusStream.publish(order);
+        return order;
+    }
+
+    private void completeAsync(Order saved, String holder, List<SeatHoldManager.SeatKey> seats) {
+        try {
+            metrics.outcome("async", chargeAndComplete(saved, holder, seats).getStatus().name());
+        } catch (PaymentUnavailableException ex) {
+            // outcome unknown: the order stays PENDING_PAYMENT, holding its seats, for reconciliation to settle
+            log.warn("Payment unavailable for order {}: {}", saved.getId(), ex.getMessage());
+            metrics.outcome("async", "PAYMENT_UNAVAILABLE");
+            seatHolds.extendAll(holder, seats);
+        } catch (RuntimeException ex) {
+            // nobody is waiting on this thread, so a failed charge cancels the order; any charge taken is refunded
+            log.warn("Payment failed for order {}: {}", saved.getId(), ex.getMessage());
+            metrics.outcome("async", "ERROR");
+            Order settled = cancelAndRefund(saved);
+            if (settled.getStatus() == OrderStatus.CONFIRMED) {
+                return; // settled meanwhile; its seats are sold
+            }
+            seatHolds.unsellAll(saved.getId()); // in case the failure came after the seats were sold
+            seatHolds.releaseAll(holder, seats);
+        }
     }
 }
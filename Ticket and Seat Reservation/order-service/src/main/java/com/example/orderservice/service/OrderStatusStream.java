@@ -0,0 +1,68 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Server-sent-event subscribers per order id, fed with every status transition
+@Component
+public class OrderStatusStream {
+
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public OrderStatusStream(@Value("${order.status-stream.timeout-ms:120000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(String orderId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.computeIfAbsent(orderId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(orderId, emitter));
+        emitter.onTimeout(() -> unsubscribe(orderId, emitter));
+        emitter.onError(e -> unsubscribe(orderId, emitter));
+        return emitter;
+    }
+
+    public void unsubscribe(String orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    public void publish(Order order) {
+        List<SseEmitter> emitters = subscribers.get(order.getId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(order.getId(), emitter, order);
+        }
+    }
+
+    // Send one status event; the stream is closed after a terminal status
+    public void send(String orderId, SseEmitter emitter, Order order) {
+        OrderStatus status = order.getStatus();
+        try {
+            emitter.send(SseEmitter.event().name("status").id(status.name()).data(status.name()));
+            if (isTerminal(status)) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            unsubscribe(orderId, emitter);
+        }
+    }
+
+    private static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.PaymentUnavailableException;
+import com.example.orderservice.feign.PaymentClient;
+import com.example.orderservice.feign.dto.BatchChargeItem;
+import com.example.orderservice.feign.dto.BatchChargeRequest;
+import com.example.orderservice.feign.dto.BatchChargeResponse;
+import com.example.orderservice.feign.dto.BatchChargeResult;
+import com.example.orderservice.feign.dto.ChargeRequest;
+import com.example.orderservice.feign.dto.ChargeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Groups concurrent charge calls into POST /v1/charges:batch requests.
+ * A batch is sent when it reaches max-size or when the window since its first
+ * charge has passed, and each caller gets its own item's result back.
+ * A caller waits at most timeout-ms for its result; a batch that fails, or is
+ * still queued at shutdown, fails its callers with PaymentUnavailableException.
+ * With payment.batch.enabled=false every charge goes straight to PaymentClient.charge.
+ */
+@Component
+public class PaymentBatcher {
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatcher.class);
+
+    private final PaymentClient paymentClient;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long windowNanos;
+    private final long timeoutMillis;
+    private final Semaphore inFlight;
+    private final BlockingQueue<PendingCharge> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService senders;
+    private final Thread collector;
+    private volatile boolean running = true;
+
+    public PaymentBatcher(PaymentClient paymentClient,
+                          @Value("${payment.batch.enabled:false}") boolean enabled,
+                          @Value("${payment.batch.max-size:50}") int maxSize,
+                          @Value("${payment.batch.window-ms:5}") long windowMillis,
+                          @Value("${payment.batch.max-in-flight:4}") int maxInFlight,
+                          @Value("${payment.batch.timeout-ms:3000}") long timeoutMillis) {
+        this.paymentClient = paymentClient;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.senders = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread t = new Thread(r, "payment-batch-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        this.collector = new Thread(this::collect, "payment-batch-collector");
+        this.collector.setDaemon(true);
+        if (enabled) {
+            collector.start();
+        }
+    }
+
+    public ChargeResponse charge(String idempotencyKey, ChargeRequest req) {
+        if (!enabled) {
+            return paymentClient.charge(idempotencyKey, req);
+        }
+        if (!running) {
+            throw new PaymentUnavailableException("Payment batcher is shut down");
+        }
+        PendingCharge pending = new PendingCharge(BatchChargeItem.of(idempotencyKey, req), new CompletableFuture<>());
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            throw new PaymentUnavailableException("Payment batcher is shut down");
+        }
+        try {
+            return pending.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                throw new PaymentUnavailableException("Charge batch did not answer within " + timeoutMillis + "ms", ex.getCause());
+            }
+            throw ex.getCause() instanceof RuntimeException re ? re : ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        collector.interrupt();
+        senders.shutdown();
+        // charges no batch will pick up any more
+        List<PendingCharge> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new PaymentUnavailableException("Payment batcher is shut down"));
+        // batches already sending get until the caller timeout; their callers time out regardless
+        if (!senders.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    private void collect() {
+        while (running) {
+            List<PendingCharge> batch = new ArrayList<>(maxSize);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCharge next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // waiting for a free sender keeps batches filling up while payment is slow
+                inFlight.acquire();
+                try {
+                    senders.execute(() -> {
+                        try {
+                            send(batch);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException ex) {
+                    inFlight.release();
+                    throw ex;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(batch, new PaymentUnavailableException("Payment batcher is shut down"));
+                return;
+            } catch (RuntimeException ex) {
+                // one batch that cannot be sent fails its own callers, not the collector
+                log.warn("Charge batch of {} could not be sent: {}", batch.size(), ex.getMessage());
+                fail(batch, new PaymentUnavailableException("Charge batch could not be sent", ex));
+            }
+        }
+    }
+
+    private void send(List<PendingCharge> batch) {
+        try {
+            List<BatchChargeItem> items = batch.stream().map(PendingCharge::item).toList();
+            BatchChargeResponse response = paymentClient.chargeBatch(new BatchChargeRequest(items));
+            List<BatchChargeResult> results = response.results();
+            for (int i = 0; i < batch.size(); i++) {
+                BatchChargeResult r = i < results.size() ? results.get(i) : null;
+                if (r == null) {
+                    batch.get(i).result.completeExceptionally(new IllegalStateException("No result for charge in batch"));
+                } else {
+                    batch.get(i).result.complete(new ChargeResponse(r.id(), r.status(), r.message()));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Charge batch of {} failed: {}", batch.size(), ex.getMessage());
+            fail(batch, ex);
+        }
+    }
+
+    private static void fail(List<PendingCharge> charges, RuntimeException ex) {
+        charges.forEach(p -> p.result.completeExceptionally(ex));
+    }
+
+    private record PendingCharge(BatchChargeItem item, CompletableFuture<ChargeResponse> result) {}
+}
@@ -0,0 +1,248 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.PaymentUnavailableException;
+import com.example.orderservice.feign.dto.ChargeRequest;
+import com.example.orderservice.feign.dto.ChargeResponse;
+import feign.FeignException;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards every charge sent to payment-service:
+ * a bulkhead caps concurrent calls, each call has a hard deadline, a circuit
+ * breaker fails fast while payment-service is unhealthy and, when enabled,
+ * a hedged second attempt is sent if the first is slow. Hedging is safe
+ * because both attempts carry the same Idempotency-Key. Every attempt, hedges
+ * included, holds a bulkhead permit until it finishes, even after the caller
+ * gave up at the deadline, so the bulkhead bounds the calls really in flight
+ * and the fixed call pool never queues; a hedge is skipped when no permit is free.
+ * Unavailability surfaces as {@link PaymentUnavailableException}; a declined
+ * charge (402) is returned as a FAILED response.
+ */
+@Component
+public class PaymentGateway {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final PaymentBatcher paymentBatcher;
+    private final PaymentCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMillis;
+    private final long deadlineMillis;
+    private final boolean hedgingEnabled;
+    private final long hedgeDelayMillis;
+    private final Executor executor;
+    private final ExecutorService pool;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong declines = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejectedOpen = new AtomicLong();
+    private final AtomicLong rejectedBulkhead = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+
+    public PaymentGateway(PaymentBatcher paymentBatcher,
+                          @Value("${payment.client.bulkhead.max-concurrent:64}") int maxConcurrent,
+                          @Value("${payment.client.bulkhead.max-wait-ms:50}") long bulkheadWaitMillis,
+                          @Value("${payment.client.deadline-ms:3000}") long deadlineMillis,
+                          @Value("${payment.client.circuit.window-size:50}") int windowSize,
+                          @Value("${payment.client.circuit.min-calls:20}") int minCalls,
+                          @Value("${payment.client.circuit.failure-rate:0.5}") double failureRate,
+                          @Value("${payment.client.circuit.open-ms:10000}") long openMillis,
+                          @Value("${payment.client.circuit.half-open-calls:5}") int halfOpenCalls,
+                          @Value("${payment.client.hedge.enabled:false}") boolean hedgingEnabled,
+                          @Value("${payment.client.hedge.delay-ms:500}") long hedgeDelayMillis,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.paymentBatcher = paymentBatcher;
+        this.circuitBreaker = new PaymentCircuitBreaker(windowSize, minCalls, failureRate, openMillis, halfOpenCalls);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        if (virtualThreads) {
+            this.pool = null;
+            this.executor = new VirtualThreadTaskExecutor("payment-call-");
+        } else {
+            // one thread per bulkhead permit: attempts, hedges included, only run while holding one
+            AtomicInteger threadCount = new AtomicInteger();
+            this.pool = Executors.newFixedThreadPool(maxConcurrent, r -> {
+                Thread t = new Thread(r, "payment-call-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            this.executor = pool;
+        }
+    }
+
+    public ChargeResponse charge(String idempotencyKey, ChargeRequest req) {
+        calls.incrementAndGet();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejectedOpen.incrementAndGet();
+            throw new PaymentUnavailableException("Payment service unavailable (circuit open)");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedBulkhead.incrementAndGet();
+            // no call was made: nothing to record, and a HALF_OPEN trial slot is handed back
+            circuitBreaker.releasePermission();
+            throw new PaymentUnavailableException("Payment service busy (bulkhead full)");
+        }
+        try {
+            ChargeResponse resp = callWithDeadline(idempotencyKey, req);
+            circuitBreaker.onSuccess();
+            if ("SUCCESS".equalsIgnoreCase(resp.status())) {
+                successes.incrementAndGet();
+            } else {
+                declines.incrementAndGet();
+            }
+            return resp;
+        } catch (FeignException ex) {
+            if (ex.status() == 402) {
+                circuitBreaker.onSuccess();
+                declines.incrementAndGet();
+                return new ChargeResponse(null, "FAILED", "Payment declined");
+            }
+            circuitBreaker.onFailure();
+            failures.incrementAndGet();
+            throw new PaymentUnavailableException("Payment service call failed: " + ex.status(), ex);
+        } catch (TimeoutException ex) {
+            circuitBreaker.onFailure();
+            timeouts.incrementAndGet();
+            throw new PaymentUnavailableException("Payment service did not answer within " + deadlineMillis + "ms", ex);
+        } catch (PaymentUnavailableException ex) {
+            circuitBreaker.onFailure();
+            failures.incrementAndGet();
+            throw ex;
+        } catch (RuntimeException ex) {
+            circuitBreaker.onFailure();
+            failures.incrementAndGet();
+            throw new PaymentUnavailableException("Payment service call failed", ex);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitState", circuitBreaker.getState());
+        stats.put("bulkheadAvailable", bulkhead.availablePermits());
+        stats.put("calls", calls.get());
+        stats.put("successes", successes.get());
+        stats.put("declines", declines.get());
+        stats.put("failures", failures.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("rejectedCircuitOpen", rejectedOpen.get());
+        stats.put("rejectedBulkheadFull", rejectedBulkhead.get());
+        stats.put("hedgesSent", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("hedgesSkippedBulkheadFull", hedgesSkipped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Runs with a bulkhead permit already taken for the primary attempt, which releases it when done
+    private ChargeResponse callWithDeadline(String idempotencyKey, ChargeRequest req) throws TimeoutException {
+        // attempts run on other threads; carry the caller's trace so the Feign call stays in the same trace
+        ContextSnapshot context = SNAPSHOTS.captureAll();
+        CompletableFuture<ChargeResponse> primary = attempt(context, idempotencyKey, req);
+        CompletableFuture<ChargeResponse> result = primary;
+        if (hedgingEnabled && hedgeDelayMillis < deadlineMillis) {
+            CompletableFuture<ChargeResponse> hedged = new CompletableFuture<>();
+            primary.whenComplete((r, e) -> {
+                if (e == null && isFinal(r)) {
+                    hedged.complete(r);
+                }
+            });
+            // the timer only decides; the hedge itself runs on the call executor under its own permit
+            CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                if (hedged.isDone()) {
+                    return;
+                }
+                if (!bulkhead.tryAcquire()) {
+                    hedgesSkipped.incrementAndGet();
+                    return;
+                }
+                hedges.incrementAndGet();
+                attempt(context, idempotencyKey, req).whenComplete((r, e) -> {
+                    if (e == null && isFinal(r) && hedged.complete(r)) {
+                        hedgeWins.incrementAndGet();
+                    }
+                });
+            });
+            // fall back to the primary's own outcome (error or non-final) if no attempt produced a final answer
+            primary.whenComplete((r, e) -> {
+                if (e != null) {
+                    hedged.completeExceptionally(e);
+                }
+            });
+            result = hedged;
+        }
+        try {
+            ChargeResponse resp = result.get(deadlineMillis, TimeUnit.MILLISECONDS);
+            if (!isFinal(resp)) {
+                // a hedge or retry replayed a charge that is still in progress
+                throw new PaymentUnavailableException("Charge " + idempotencyKey + " still pending at payment service");
+            }
+            return resp;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentUnavailableException("Interrupted waiting for payment service", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException re ? re : new CompletionException(ex.getCause());
+        }
+    }
+
+    // Called holding a bulkhead permit; the attempt gives it back when it finishes, however late
+    private CompletableFuture<ChargeResponse> attempt(ContextSnapshot context, String idempotencyKey, ChargeRequest req) {
+        CompletableFuture<ChargeResponse> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> {
+                try (ContextSnapshot.Scope ignored = context.setThreadLocals()) {
+                    return paymentBatcher.charge(idempotencyKey, req);
+                }
+            }, executor);
+        } catch (RuntimeException ex) {
+            bulkhead.release(); // rejected by a shut-down executor
+            throw ex;
+        }
+        call.whenComplete((r, e) -> bulkhead.release());
+        return call;
+    }
+
+    private static boolean isFinal(ChargeResponse resp) {
+        return resp != null && !"PENDING".equalsIgnoreCase(resp.status());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.domain.SoldSeat;
+import com.example.orderservice.repository.SoldSeatRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seat holds keyed by (eventId, seatCode).
+ * A hold is claimed with a single CAS-style map update and expires after the
+ * configured TTL. Sold seats are not kept here: confirming writes them to the
+ * sold_seats collection, whose _id makes a second sale a duplicate key, and
+ * drops the holds, so the map only ever holds unpaid seats and a restart or a
+ * second instance still sees what was sold.
+ */
+@Component
+public class SeatHoldManager {
+
+    private final ConcurrentMap<SeatKey, Hold> holds = new ConcurrentHashMap<>();
+    private final SoldSeatRepository soldSeats;
+    private final long ttlNanos;
+    private final long unresolvedTtlNanos;
+
+    public SeatHoldManager(SoldSeatRepository soldSeats,
+                           @Value("${order.seat-hold.ttl-ms:120000}") long ttlMillis,
+                           @Value("${order.seat-hold.unresolved-ttl-ms:900000}") long unresolvedTtlMillis) {
+        this.soldSeats = soldSeats;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.unresolvedTtlNanos = unresolvedTtlMillis * 1_000_000L;
+    }
+
+    /**
+     * Claim every seat for the given holder or none of them.
+     * Returns the first seat that could not be claimed or is already sold, or null when all were claimed.
+     */
+    public SeatKey claimAll(String holder, List<SeatKey> seats) {
+        List<SeatKey> claimed = new ArrayList<>(seats.size());
+        for (SeatKey seat : seats) {
+            if (!claim(holder, seat, ttlNanos)) {
+                releaseAll(holder, claimed);
+                return seat;
+            }
+            claimed.add(seat);
+        }
+        SeatKey sold = firstSold(seats);
+        if (sold != null) {
+            releaseAll(holder, seats);
+        }
+        return sold;
+    }
+
+    // Drop the holder's holds; seats held by someone else are left alone
+    public void releaseAll(String holder, List<SeatKey> seats) {
+        for (SeatKey seat : seats) {
+            holds.computeIfPresent(seat, (k, h) -> h.holder.equals(holder) ? null : h);
+        }
+    }
+
+    // Keep the holder's seats while a charge outcome is unknown, long enough for reconciliation to settle it
+    public void extendAll(String holder, List<SeatKey> seats) {
+        for (SeatKey seat : seats) {
+            claim(holder, seat, unresolvedTtlNanos);
+        }
+    }
+
+    /**
+     * Sell the seats to the order. Holds are re-validated first: a seat still
+     * held by the holder, or whose hold lapsed without anyone else taking it,
+     * is (re)claimed; a seat held by someone else or sold to another order
+     * makes the whole call fail with nothing sold. On success the holds are
+     * dropped, since sold_seats now keeps the seats taken.
+     */
+    public boolean confirmAll(String holder, String orderId, List<SeatKey> seats) {
+        for (SeatKey seat : seats) {
+            if (!claim(holder, seat, ttlNanos)) {
+                return false;
+            }
+        }
+        List<SoldSeat> sold = seats.stream()
+                .map(seat -> new SoldSeat(seat.eventId(), seat.seatCode(), orderId))
+                .toList();
+        if (!soldSeats.sellAll(orderId, sold)) {
+            return false;
+        }
+        releaseAll(holder, seats);
+        return true;
+    }
+
+    // Give an order's sold seats back, when it is cancelled after confirming them
+    public void unsellAll(String orderId) {
+        soldSeats.deleteByOrderId(orderId);
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedDelayString = "${order.seat-hold.sweep-interval-ms:10000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        holds.values().removeIf(h -> h.isExpired(now));
+    }
+
+    // Free, lapsed or already the holder's own seats are (re)claimed with a fresh TTL
+    private boolean claim(String holder, SeatKey seat, long ttl) {
+        long now = System.nanoTime();
+        Hold candidate = new Hold(holder, now + ttl);
+        Hold result = holds.compute(seat, (k, current) ->
+                current == null || current.isExpired(now) || current.holder.equals(holder) ? candidate : current);
+        return result == candidate;
+    }
+
+    private SeatKey firstSold(List<SeatKey> seats) {
+        Set<String> sold = new HashSet<>();
+        soldSeats.findAllById(seats.stream().map(s -> SoldSeat.id(s.eventId(), s.seatCode())).toList())
+                .forEach(s -> sold.add(s.getId()));
+        if (sold.isEmpty()) {
+            return null;
+        }
+        return seats.stream()
+                .filter(s -> sold.contains(SoldSeat.id(s.eventId(), s.seatCode())))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public record SeatKey(String eventId, String seatCode) {}
+
+    private record Hold(String holder, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
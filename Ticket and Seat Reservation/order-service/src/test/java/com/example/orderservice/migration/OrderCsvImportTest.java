@@ -0,0 +1,101 @@
+package com.example.orderservice.migration;
+
+import com.example.orderservice.config.MongoConfig;
+import com.example.orderservice.domain.Order;
+import com.example.orderservice.domain.OrderStatus;
+import com.example.orderservice.repository.SoldSeatRepository;
+import com.example.orderservice.repository.SoldSeatRepositoryImpl;
+import com.example.orderservice.service.SeatHoldManager;
+import com.example.orderservice.service.SeatHoldManager.SeatKey;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderCsvImportTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private SeatHoldManager seatHolds;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void startMongo() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://127.0.0.1:" + address.getPort());
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "orders");
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(factory, converter);
+        SoldSeatRepository soldSeats = new MongoRepositoryFactory(mongoTemplate).getRepository(
+                SoldSeatRepository.class, RepositoryFragments.just(new SoldSeatRepositoryImpl(mongoTemplate)));
+        seatHolds = new SeatHoldManager(soldSeats, 120_000, 900_000);
+    }
+
+    @AfterEach
+    void stopMongo() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void seatsOfImportedConfirmedOrdersCannotBeClaimedAgain() throws Exception {
+        Files.writeString(dir.resolve("etsr_orders.csv"), """
+                order_id,user_id,event_id,status,payment_status,order_total,created_at
+                1,23,25,CONFIRMED,SUCCESS,895.93,2024-01-28 22:02:21
+                2,3,22,CANCELLED,FAILED,586.08,2024-08-19 00:39:20
+                """);
+        Files.writeString(dir.resolve("etsr_tickets.csv"), """
+                ticket_id,order_id,event_id,seat_id,price_paid
+                1,1,25,3121,895.93
+                2,2,22,2695,586.08
+                """);
+
+        new OrderCsvImport(mongoTemplate, dir.toString(), 1000, 1, false).importAll();
+
+        SeatKey sold = new SeatKey("25", "3121");
+        assertEquals(sold, seatHolds.claimAll("holder-1", List.of(sold)));
+        // the cancelled order's seat was never sold
+        assertNull(seatHolds.claimAll("holder-1", List.of(new SeatKey("22", "2695"))));
+    }
+
+    @Test
+    void createdOrdersAreImportedAsCancelled() throws Exception {
+        Files.writeString(dir.resolve("etsr_orders.csv"), """
+                order_id,user_id,event_id,status,payment_status,order_total,created_at
+                1,23,25,CREATED,SUCCESS,895.93,2024-01-28 22:02:21
+                """);
+
+        new OrderCsvImport(mongoTemplate, dir.toString(), 1000, 1, false).importAll();
+
+        assertEquals(OrderStatus.CANCELLED, mongoTemplate.findById("1", Order.class).getStatus());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.PlaceOrderRequest;
+import com.example.orderservice.exception.BadRequestException;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class OrderServiceTest {
+
+    private OrderRepository orderRepository;
+    private PaymentGateway paymentGateway;
+    private SeatHoldManager seatHolds;
+    private OrderPaymentQueue paymentQueue;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        paymentGateway = mock(PaymentGateway.class);
+        seatHolds = mock(SeatHoldManager.class);
+        paymentQueue = mock(OrderPaymentQueue.class);
+        orderService = new OrderService(orderRepository, paymentGateway, seatHolds, mock(OrderRefunds.class),
+                paymentQueue, mock(OrderStatusStream.class),
+                new OrderMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    }
+
+    @Test
+    void createOrderRejectsASeatListedTwice() {
+        assertThrows(BadRequestException.class, () -> orderService.createOrder(requestWithDuplicateSeat()));
+        verifyNoInteractions(seatHolds, paymentGateway, orderRepository);
+    }
+
+    @Test
+    void submitOrderRejectsASeatListedTwice() {
+        assertThrows(BadRequestException.class, () -> orderService.submitOrder(requestWithDuplicateSeat()));
+        verifyNoInteractions(seatHolds, paymentGateway, orderRepository, paymentQueue);
+    }
+
+    private static PlaceOrderRequest requestWithDuplicateSeat() {
+        PlaceOrderRequest req = new PlaceOrderRequest();
+        req.userId = "user-1";
+        req.lines = List.of(line("event-1", "A1"), line("event-1", "A1"));
+        return req;
+    }
+
+    private static PlaceOrderRequest.OrderLine line(String eventId, String seatCode) {
+        PlaceOrderRequest.OrderLine line = new PlaceOrderRequest.OrderLine();
+        line.eventId = eventId;
+        line.seatCode = seatCode;
+        line.price = new BigDecimal("100.00");
+        return line;
+    }
+}
@@ -1,24 +1,43 @@
 package com.example.paymentservice.controller;
 
+import com.example.paymentservice.dto.BatchChargeRequest;
+import com.example.paymentservice.dto.BatchChargeResponse;
 import com.example.paymentservice.dto.ChargeRequest;
 import com.example.paymentservice.dto.ChargeResponse;
-import com.example.paymentservice.domain.Payment;
-import com.example.paymentservice.domain.PaymentStatus;
-import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.service.ChargeService;
+import com.example.paymentservice.service.IdempotencyCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/v1/charges")
 public class PaymentController {
-    private final PaymentRepository paymentRepository;
+    private final ChargeService chargeService;
+    private final IdempotencyCache idempotencyCache;
+    private final int maxBatchItems;
+    private final MeterRegistry registry;
+    private final Timer replayTimer;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Timer errorTimer;
 
-    public PaymentController(PaymentRepository paymentRepository) {
-        this.paymentRepository = paymentRepository;
+    public PaymentController(ChargeService chargeService, IdempotencyCache idempotencyCache,
+                             @Value("${payment.batch.max-items:500}") int maxBatchItems,
+                             MeterRegistry registry) {
+        this.chargeService = chargeService;
+        this.idempotencyCache = idempotencyCache;
+        this.maxBatchItems = maxBatchItems;
+        this.registry = registry;
+        this.replayTimer = chargeTimer(registry, "replay");
+        this.successTimer = chargeTimer(registry, "success");
+        this.failureTimer = chargeTimer(registry, "failure");
+        this.errorTimer = chargeTimer(registry, "error");
     }
 
     @PostMapping
@@ -30,37 +49,54 @@ public class PaymentController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ChargeResponse(null, "FAILED", "Missing Idempotency-Key header"));
         }
 
-        Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
-        if (existing.isPresent()) {
-            Payment p = existing.get();
-            return ResponseEntity.ok(new ChargeResponse(p.getId(), p.getStatus().name(), "idempotent-result"));
+        Timer.Sample sample = Timer.start(registry);
+        Timer timer = errorTimer; // until an outcome is known, e.g. when the charge throws
+        try {
+            ChargeService.ChargeOutcome outcome = chargeService.charge(idempotencyKey, req);
+            ChargeResponse resp = outcome.response();
+            if (outcome.replay()) {
+                timer = replayTimer;
+                return ResponseEntity.ok(resp);
+            }
+            if ("SUCCESS".equals(resp.status())) {
+                timer = successTimer;
+                return ResponseEntity.ok(resp);
+            }
+            timer = failureTimer;
+            return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).body(resp);
+        } finally {
+            sample.stop(timer);
         }
+    }
 
-        // create PENDING payment record
-        Payment payment = new Payment();
-        payment.setOrderId(req.orderId());
-        payment.setAmount(req.amount());
-        payment.setCurrency(req.currency());
-        payment.setStatus(PaymentStatus.PENDING);
-        payment.setIdempotencyKey(idempotencyKey);
-    paymentRepository.save(payment);
+    // Outcome recorded for an idempotency key, used by order reconciliation; 404 when nothing was charged
+    @GetMapping
+    public ResponseEntity<ChargeResponse> lookup(@RequestParam String idempotencyKey) {
+        return ResponseEntity.of(chargeService.lookup(idempotencyKey));
+    }
 
-        // Simulate communication with payment gateway (synchronous for demo)
-        boolean gatewayOk = simulateGatewayCharge(req);
-        if (gatewayOk) {
-            payment.setStatus(PaymentStatus.SUCCESS);
-            payment.setGatewayChargeId("gw_" + UUID.randomUUID());
-            paymentRepository.save(payment);
-            return ResponseEntity.ok(new ChargeResponse(payment.getId(), "SUCCESS", "Charged successfully"));
-        } else {
-            payment.setStatus(PaymentStatus.FAILED);
-            paymentRepository.save(payment);
-            return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).body(new ChargeResponse(payment.getId(), "FAILED", "Gateway failed"));
+    // Many charges in one call, each with its own idempotency key; always 200 with per-item results
+    @PostMapping(":batch")
+    public ResponseEntity<?> chargeBatch(@RequestBody BatchChargeRequest req) {
+        if (req.items() == null || req.items().isEmpty()) {
+            return ResponseEntity.badRequest().body("Batch has no items");
+        }
+        if (req.items().size() > maxBatchItems) {
+            return ResponseEntity.badRequest().body("Batch exceeds " + maxBatchItems + " items");
         }
+        return ResponseEntity.ok(new BatchChargeResponse(chargeService.chargeBatch(req.items())));
+    }
+
+    private static Timer chargeTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("payment.charge")
+                .description("POST /v1/charges by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
-    private boolean simulateGatewayCharge(ChargeRequest req) {
-        // For demo: succeed for amounts < 1,00,000, otherwise fail
-        return req.amount().doubleValue() < 100000;
+    // Replay cache hit rate and concurrent-retry collisions
+    @GetMapping("/idempotency/stats")
+    public Map<String, Object> idempotencyStats() {
+        return idempotencyCache.stats();
     }
 }
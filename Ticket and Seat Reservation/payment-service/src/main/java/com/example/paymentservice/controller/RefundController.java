@@ -3,29 +3,70 @@ package com.example.paymentservice.controller;
 import com.example.paymentservice.domain.Payment;
 import com.example.paymentservice.domain.PaymentStatus;
 import com.example.paymentservice.repository.PaymentRepository;
+import com.example.paymentservice.service.IdempotencyCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/v1/refunds")
 public class RefundController {
     private final PaymentRepository paymentRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final MeterRegistry registry;
+    private final Timer refundedTimer;
+    private final Timer rejectedTimer;
+    private final Timer notFoundTimer;
+    private final Timer errorTimer;
 
-    public RefundController(PaymentRepository paymentRepository) { this.paymentRepository = paymentRepository; }
+    public RefundController(PaymentRepository paymentRepository, IdempotencyCache idempotencyCache,
+                            MeterRegistry registry) {
+        this.paymentRepository = paymentRepository;
+        this.idempotencyCache = idempotencyCache;
+        this.registry = registry;
+        this.refundedTimer = refundTimer(registry, "refunded");
+        this.rejectedTimer = refundTimer(registry, "rejected");
+        this.notFoundTimer = refundTimer(registry, "not_found");
+        this.errorTimer = refundTimer(registry, "error");
+    }
 
     @PostMapping("/{paymentId}")
     public ResponseEntity<?> refund(@PathVariable String paymentId) {
-        Optional<Payment> pOpt = paymentRepository.findById(paymentId);
+        Timer.Sample sample = Timer.start(registry);
+        Timer timer = errorTimer; // until an outcome is known, e.g. when Mongo throws
+        try {
+            Optional<Payment> pOpt = paymentRepository.findById(paymentId);
             if (pOpt.isEmpty()) {
+                timer = notFoundTimer;
                 return ResponseEntity.notFound().build();
             }
-        Payment p = pOpt.get();
-        if (p.getStatus() != PaymentStatus.SUCCESS) return ResponseEntity.badRequest().body("Only successful payments can be refunded");
-        p.setStatus(PaymentStatus.REFUNDED);
-        paymentRepository.save(p);
-        return ResponseEntity.ok("Refunded");
+            Payment p = pOpt.get();
+            if (p.getStatus() != PaymentStatus.SUCCESS) {
+                timer = rejectedTimer;
+                return ResponseEntity.badRequest().body("Only successful payments can be refunded");
+            }
+            p.setStatus(PaymentStatus.REFUNDED);
+            paymentRepository.save(p);
+            // a cached SUCCESS would otherwise be replayed to a charge retry for this order
+            if (p.getIdempotencyKey() != null) {
+                idempotencyCache.invalidateAll(List.of(p.getIdempotencyKey()));
+            }
+            timer = refundedTimer;
+            return ResponseEntity.ok("Refunded");
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private static Timer refundTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("payment.refund")
+                .description("POST /v1/refunds/{paymentId} by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.dto.RefundJobRequest;
+import com.example.paymentservice.dto.RefundJobResponse;
+import com.example.paymentservice.service.RefundJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// Bulk refunds run as background jobs; poll GET /v1/refunds/jobs/{id} for progress
+@RestController
+@RequestMapping("/v1/refunds/jobs")
+public class RefundJobController {
+    private final RefundJobService refundJobService;
+
+    public RefundJobController(RefundJobService refundJobService) {
+        this.refundJobService = refundJobService;
+    }
+
+    // 400 for a job without orders or over payment.refund.job.max-orders, 503 while max-running jobs run here
+    @PostMapping
+    public ResponseEntity<RefundJobResponse> submit(@RequestBody RefundJobRequest req) {
+        RefundJobResponse job = RefundJobResponse.of(refundJobService.submit(req));
+        return ResponseEntity.accepted().location(URI.create("/v1/refunds/jobs/" + job.id())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RefundJobResponse> status(@PathVariable String id) {
+        return ResponseEntity.of(refundJobService.find(id).map(RefundJobResponse::of));
+    }
+
+    // Continue a FAILED job (or one whose runner died) from its last checkpoint
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<RefundJobResponse> resume(@PathVariable String id) {
+        return ResponseEntity.of(refundJobService.resume(id).map(RefundJobResponse::of));
+    }
+}
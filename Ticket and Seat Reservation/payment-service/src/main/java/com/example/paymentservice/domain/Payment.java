@@ -1,11 +1,20 @@
 package com.example.paymentservice.domain;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Document(collection = "payments")
+@CompoundIndexes({
+		// Reconciliation scans stale PENDING payments oldest first
+		@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}"),
+		// Bulk refund jobs look up the SUCCESS payments of a set of orders
+		@CompoundIndex(name = "orderId_status", def = "{'orderId': 1, 'status': 1}")
+})
 public class Payment {
 	@Id
 	private String id;
@@ -82,6 +91,7 @@ public class Payment {
 
 	private String gatewayChargeId; // external gateway id if any
 
+    @Indexed(unique = true)
     private String idempotencyKey;
 
     private OffsetDateTime createdAt = OffsetDateTime.now();
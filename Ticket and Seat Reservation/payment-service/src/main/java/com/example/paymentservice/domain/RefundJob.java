@@ -0,0 +1,148 @@
+package com.example.paymentservice.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.OffsetDateTime;
+
+@Document(collection = "refund_jobs")
+public class RefundJob {
+	@Id
+	private String id;
+	private String eventId;
+
+	private int totalOrders;
+	private int nextIndex; // orders before this index are done (checkpoint)
+	private long matched; // SUCCESS payments found
+	private long refunded; // of those, moved to REFUNDED by this job
+	private int concurrency;
+	private int ratePerSecond; // refunds per second, 0 = unlimited
+
+	private RefundJobStatus status;
+	private String error;
+
+	private String owner; // token of the runner holding the lease
+	private OffsetDateTime leaseUntil; // the runner renews this; an expired lease on a RUNNING job means its runner died
+	private OffsetDateTime createdAt;
+	private OffsetDateTime updatedAt;
+	private OffsetDateTime finishedAt;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(String eventId) {
+		this.eventId = eventId;
+	}
+
+	public int getTotalOrders() {
+		return totalOrders;
+	}
+
+	public void setTotalOrders(int totalOrders) {
+		this.totalOrders = totalOrders;
+	}
+
+	public int getNextIndex() {
+		return nextIndex;
+	}
+
+	public void setNextIndex(int nextIndex) {
+		this.nextIndex = nextIndex;
+	}
+
+	public long getMatched() {
+		return matched;
+	}
+
+	public void setMatched(long matched) {
+		this.matched = matched;
+	}
+
+	public long getRefunded() {
+		return refunded;
+	}
+
+	public void setRefunded(long refunded) {
+		this.refunded = refunded;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	public int getRatePerSecond() {
+		return ratePerSecond;
+	}
+
+	public void setRatePerSecond(int ratePerSecond) {
+		this.ratePerSecond = ratePerSecond;
+	}
+
+	public RefundJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(RefundJobStatus status) {
+		this.status = status;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public OffsetDateTime getLeaseUntil() {
+		return leaseUntil;
+	}
+
+	public void setLeaseUntil(OffsetDateTime leaseUntil) {
+		this.leaseUntil = leaseUntil;
+	}
+
+	public OffsetDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(OffsetDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public OffsetDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(OffsetDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public OffsetDateTime getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(OffsetDateTime finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+}
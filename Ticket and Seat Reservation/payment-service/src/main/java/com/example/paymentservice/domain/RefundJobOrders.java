@@ -0,0 +1,59 @@
+package com.example.paymentservice.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.List;
+
+// One chunk of a refund job's orders, kept apart from the job so large jobs stay far below
+// the 16 MB document limit. Removed when the job completes.
+@Document(collection = "refund_job_orders")
+@CompoundIndex(name = "jobId_from", def = "{'jobId': 1, 'from': 1}", unique = true)
+public class RefundJobOrders {
+	@Id
+	private String id;
+	private String jobId;
+	private int from; // index of the chunk's first order in the job
+	private List<String> orderIds;
+
+	public RefundJobOrders() {
+	}
+
+	public RefundJobOrders(String jobId, int from, List<String> orderIds) {
+		this.jobId = jobId;
+		this.from = from;
+		this.orderIds = orderIds;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(String jobId) {
+		this.jobId = jobId;
+	}
+
+	public int getFrom() {
+		return from;
+	}
+
+	public void setFrom(int from) {
+		this.from = from;
+	}
+
+	public List<String> getOrderIds() {
+		return orderIds;
+	}
+
+	public void setOrderIds(List<String> orderIds) {
+		this.orderIds = orderIds;
+	}
+}
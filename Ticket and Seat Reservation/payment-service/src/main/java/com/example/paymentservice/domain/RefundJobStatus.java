@@ -0,0 +1,3 @@
+package com.example.paymentservice.domain;
+
+public enum RefundJobStatus { RUNNING, COMPLETED, FAILED }
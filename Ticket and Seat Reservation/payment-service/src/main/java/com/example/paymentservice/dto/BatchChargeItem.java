@@ -0,0 +1,10 @@
+package com.example.paymentservice.dto;
+
+import java.math.BigDecimal;
+
+public record BatchChargeItem(String idempotencyKey, String orderId, BigDecimal amount, String currency, String paymentMethodId) {
+
+    public ChargeRequest toChargeRequest() {
+        return new ChargeRequest(orderId, amount, currency, paymentMethodId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.paymentservice.dto;
+
+import java.util.List;
+
+// results.get(i) belongs to request item i
+public record BatchChargeResponse(List<BatchChargeResult> results) {}
@@ -0,0 +1,4 @@
+package com.example.paymentservice.dto;
+
+// Outcome of one batch item; status is SUCCESS, FAILED or PENDING like ChargeResponse
+public record BatchChargeResult(String idempotencyKey, String id, String status, String message) {}
@@ -0,0 +1,7 @@
+package com.example.paymentservice.dto;
+
+import java.util.List;
+
+// Refund every SUCCESS payment of these orders; eventId only labels the job (e.g. the cancelled event).
+// concurrency and ratePerSecond are optional and capped by payment.refund.job.*
+public record RefundJobRequest(String eventId, List<String> orderIds, Integer concurrency, Integer ratePerSecond) {}
@@ -0,0 +1,30 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.domain.RefundJob;
+
+import java.time.OffsetDateTime;
+
+// Progress of a bulk refund job; skipped counts payments refunded by someone else after they were matched
+public record RefundJobResponse(String id,
+                                String eventId,
+                                String status,
+                                int totalOrders,
+                                int processedOrders,
+                                long refunded,
+                                long skipped,
+                                double refundsPerSecond,
+                                OffsetDateTime createdAt,
+                                OffsetDateTime updatedAt,
+                                OffsetDateTime finishedAt,
+                                String error) {
+
+    public static RefundJobResponse of(RefundJob job) {
+        OffsetDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : job.getUpdatedAt();
+        long millis = end != null && job.getCreatedAt() != null
+                ? end.toInstant().toEpochMilli() - job.getCreatedAt().toInstant().toEpochMilli() : 0;
+        return new RefundJobResponse(job.getId(), job.getEventId(), job.getStatus().name(),
+                job.getTotalOrders(), job.getNextIndex(), job.getRefunded(), job.getMatched() - job.getRefunded(),
+                millis > 0 ? job.getRefunded() * 1000.0 / millis : 0,
+                job.getCreatedAt(), job.getUpdatedAt(), job.getFinishedAt(), job.getError());
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.paymentservice.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) { super(message); }
+}
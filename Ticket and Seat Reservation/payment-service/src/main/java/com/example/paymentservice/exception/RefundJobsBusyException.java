@@ -0,0 +1,5 @@
+package com.example.paymentservice.exception;
+
+public class RefundJobsBusyException extends RuntimeException {
+    public RefundJobsBusyException(String message) { super(message); }
+}
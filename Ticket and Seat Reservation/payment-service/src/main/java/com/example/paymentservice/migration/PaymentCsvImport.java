@@ -0,0 +1,69 @@
+package com.example.paymentservice.migration;
+
+import com.example.paymentservice.config.MongoConfig;
+import com.example.paymentservice.domain.Payment;
+import com.example.paymentservice.domain.PaymentStatus;
+import com.example.shared.csvimport.BulkCsvLoader;
+import com.example.shared.csvimport.CsvImportJob;
+import com.example.shared.csvimport.CsvRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+
+/**
+ * Bulk import of payments from CSV (the seed-data/etsr_payments.csv layout).
+ * A separate main class that imports and exits; run with
+ * --payment.import.dir=../seed-data. Each payment gets the idempotency
+ * key order-service would have sent for its order, so a later retry of an
+ * imported order replays the stored result instead of charging again.
+ * PENDING rows are imported as FAILED: the gateway has no record of them, so
+ * PaymentReconciler would fail them on its first run anyway.
+ */
+@SpringBootConfiguration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@Import(MongoConfig.class)
+@Profile(CsvImportJob.PROFILE)
+public class PaymentCsvImport extends CsvImportJob {
+
+    public PaymentCsvImport(MongoTemplate mongoTemplate,
+                            @Value("${payment.import.dir}") String dir,
+                            @Value("${payment.import.batch-size:1000}") int batchSize,
+                            @Value("${payment.import.parallelism:4}") int parallelism,
+                            @Value("${payment.import.restart:false}") boolean restart) {
+        super(mongoTemplate, dir, batchSize, parallelism, restart);
+    }
+
+    public static void main(String[] args) {
+        CsvImportJob.run(PaymentCsvImport.class, args);
+    }
+
+    @Override
+    protected void importFiles(BulkCsvLoader loader) throws IOException, InterruptedException {
+        load(loader, "etsr_payments.csv", Payment.class, (bulk, row) -> bulk.insert(toPayment(row)));
+    }
+
+    // method (CARD, UPI, ...) has no field on Payment and is not kept
+    static Payment toPayment(CsvRow row) {
+        Payment payment = new Payment();
+        payment.setId(row.get("payment_id"));
+        payment.setOrderId(row.get("order_id"));
+        payment.setAmount(row.getDecimal("amount"));
+        payment.setCurrency("INR");
+        payment.setStatus(toStatus(row.get("status")));
+        payment.setGatewayChargeId(row.optional("reference"));
+        payment.setIdempotencyKey("order-" + payment.getOrderId());
+        payment.setCreatedAt(row.getTimestamp("created_at").atOffset(ZoneOffset.UTC));
+        return payment;
+    }
+
+    static PaymentStatus toStatus(String value) {
+        PaymentStatus status = PaymentStatus.valueOf(value.toUpperCase());
+        return status == PaymentStatus.PENDING ? PaymentStatus.FAILED : status;
+    }
+}
@@ -2,8 +2,12 @@ package com.example.paymentservice.repository;
 
 import com.example.paymentservice.domain.Payment;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends MongoRepository<Payment, String> {
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    List<Payment> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
 }
@@ -0,0 +1,262 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.domain.Payment;
+import com.example.paymentservice.domain.PaymentStatus;
+import com.example.paymentservice.dto.BatchChargeItem;
+import com.example.paymentservice.dto.BatchChargeResult;
+import com.example.paymentservice.dto.ChargeRequest;
+import com.example.paymentservice.dto.ChargeResponse;
+import com.example.paymentservice.repository.PaymentRepository;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class ChargeService {
+    private static final Logger log = LoggerFactory.getLogger(ChargeService.class);
+
+    static final String REPLAY_MESSAGE = "idempotent-result";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final PaymentRepository paymentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final IdempotencyCache idempotencyCache;
+    private final GatewaySimulator gateway;
+
+    public ChargeService(PaymentRepository paymentRepository, MongoTemplate mongoTemplate,
+                         IdempotencyCache idempotencyCache, GatewaySimulator gateway) {
+        this.paymentRepository = paymentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.idempotencyCache = idempotencyCache;
+        this.gateway = gateway;
+    }
+
+    // Charge once per idempotency key; repeats get the recorded result back
+    public ChargeOutcome charge(String idempotencyKey, ChargeRequest req) {
+        ChargeResponse cached = idempotencyCache.get(idempotencyKey);
+        if (cached != null) {
+            return ChargeOutcome.replay(cached);
+        }
+
+        // create PENDING payment record; the unique index on idempotencyKey decides who charges
+        Payment payment = new Payment();
+        payment.setOrderId(req.orderId());
+        payment.setAmount(req.amount());
+        payment.setCurrency(req.currency());
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setIdempotencyKey(idempotencyKey);
+        try {
+            paymentRepository.insert(payment);
+        } catch (DuplicateKeyException ex) {
+            idempotencyCache.recordCollision();
+            Payment existing = paymentRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> ex);
+            ChargeResponse replay = new ChargeResponse(existing.getId(), existing.getStatus().name(), REPLAY_MESSAGE);
+            if (existing.getStatus() != PaymentStatus.PENDING) {
+                idempotencyCache.put(idempotencyKey, replay);
+            }
+            return ChargeOutcome.replay(replay);
+        }
+
+        // Simulate communication with payment gateway (synchronous for demo)
+        boolean gatewayOk = gateway.charge(idempotencyKey, req);
+        if (gatewayOk) {
+            payment.setStatus(PaymentStatus.SUCCESS);
+            payment.setGatewayChargeId("gw_" + UUID.randomUUID());
+        } else {
+            payment.setStatus(PaymentStatus.FAILED);
+        }
+        paymentRepository.save(payment);
+
+        idempotencyCache.put(idempotencyKey,
+                new ChargeResponse(payment.getId(), payment.getStatus().name(), REPLAY_MESSAGE));
+        return gatewayOk
+                ? ChargeOutcome.fresh(new ChargeResponse(payment.getId(), "SUCCESS", "Charged successfully"))
+                : ChargeOutcome.fresh(new ChargeResponse(payment.getId(), "FAILED", "Gateway failed"));
+    }
+
+    // Recorded result for an idempotency key without charging, PENDING included; empty when none was recorded
+    public Optional<ChargeResponse> lookup(String idempotencyKey) {
+        return paymentRepository.findByIdempotencyKey(idempotencyKey)
+                .map(p -> new ChargeResponse(p.getId(), p.getStatus().name(), REPLAY_MESSAGE));
+    }
+
+    /**
+     * Batch version of {@link #charge}: one unordered bulk insert for the new
+     * PENDING payments and one bulk update for their final status. Every item
+     * gets its own result; a bad or duplicate item does not fail the others.
+     * An item whose status update was not written is answered PENDING and not
+     * cached, so callers never act on an outcome that is not stored.
+     */
+    public List<BatchChargeResult> chargeBatch(List<BatchChargeItem> items) {
+        BatchChargeResult[] results = new BatchChargeResult[items.size()];
+        List<Integer> fresh = new ArrayList<>();
+        List<Payment> pending = new ArrayList<>();
+        Map<String, Integer> firstByKey = new HashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchChargeItem item = items.get(i);
+            String key = item.idempotencyKey();
+            if (key == null || key.isBlank()) {
+                results[i] = new BatchChargeResult(key, null, "FAILED", "Missing idempotency key");
+                continue;
+            }
+            if (item.amount() == null) {
+                results[i] = new BatchChargeResult(key, null, "FAILED", "Missing amount");
+                continue;
+            }
+            if (firstByKey.containsKey(key)) {
+                continue; // repeated within the batch, answered from the first occurrence below
+            }
+            firstByKey.put(key, i);
+            ChargeResponse cached = idempotencyCache.get(key);
+            if (cached != null) {
+                results[i] = toResult(key, cached);
+                continue;
+            }
+            Payment payment = new Payment();
+            payment.setId(new ObjectId().toHexString());
+            payment.setOrderId(item.orderId());
+            payment.setAmount(item.amount());
+            payment.setCurrency(item.currency());
+            payment.setStatus(PaymentStatus.PENDING);
+            payment.setIdempotencyKey(key);
+            fresh.add(i);
+            pending.add(payment);
+        }
+
+        Map<Integer, Integer> insertErrors = insertPending(pending);
+        Set<String> collidedKeys = new HashSet<>();
+        BulkOperations statusUpdates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class);
+        List<Integer> charged = new ArrayList<>(); // positions in pending, in update order
+        for (int p = 0; p < pending.size(); p++) {
+            Payment payment = pending.get(p);
+            Integer errorCode = insertErrors.get(p);
+            if (errorCode != null) {
+                if (errorCode == DUPLICATE_KEY) {
+                    collidedKeys.add(payment.getIdempotencyKey());
+                } else {
+                    results[fresh.get(p)] = new BatchChargeResult(payment.getIdempotencyKey(), null, "FAILED", "Payment could not be recorded");
+                }
+                continue;
+            }
+            boolean gatewayOk = gateway.charge(payment.getIdempotencyKey(), items.get(fresh.get(p)).toChargeRequest());
+            payment.setStatus(gatewayOk ? PaymentStatus.SUCCESS : PaymentStatus.FAILED);
+            Update update = Update.update("status", payment.getStatus());
+            if (gatewayOk) {
+                payment.setGatewayChargeId("gw_" + UUID.randomUUID());
+                update.set("gatewayChargeId", payment.getGatewayChargeId());
+            }
+            statusUpdates.updateOne(Query.query(Criteria.where("_id").is(payment.getId())), update);
+            charged.add(p);
+        }
+
+        // results are only final (and cached) once their status is stored
+        Set<Integer> unrecorded = writeStatuses(statusUpdates, charged.size());
+        for (int u = 0; u < charged.size(); u++) {
+            Payment payment = pending.get(charged.get(u));
+            int i = fresh.get(charged.get(u));
+            if (unrecorded.contains(u)) {
+                // the row is still PENDING; payment reconciliation settles it and a retry is answered from it
+                results[i] = new BatchChargeResult(payment.getIdempotencyKey(), payment.getId(), "PENDING",
+                        "Charge outcome not recorded yet");
+                continue;
+            }
+            boolean gatewayOk = payment.getStatus() == PaymentStatus.SUCCESS;
+            results[i] = new BatchChargeResult(payment.getIdempotencyKey(), payment.getId(), payment.getStatus().name(),
+                    gatewayOk ? "Charged successfully" : "Gateway failed");
+            idempotencyCache.put(payment.getIdempotencyKey(),
+                    new ChargeResponse(payment.getId(), payment.getStatus().name(), REPLAY_MESSAGE));
+        }
+
+        if (!collidedKeys.isEmpty()) {
+            for (Payment existing : paymentRepository.findByIdempotencyKeyIn(collidedKeys)) {
+                idempotencyCache.recordCollision();
+                ChargeResponse replay = new ChargeResponse(existing.getId(), existing.getStatus().name(), REPLAY_MESSAGE);
+                if (existing.getStatus() != PaymentStatus.PENDING) {
+                    idempotencyCache.put(existing.getIdempotencyKey(), replay);
+                }
+                results[firstByKey.get(existing.getIdempotencyKey())] = toResult(existing.getIdempotencyKey(), replay);
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            String key = items.get(i).idempotencyKey();
+            Integer first = firstByKey.get(key);
+            BatchChargeResult original = first != null && first != i ? results[first] : null;
+            results[i] = original != null
+                    ? new BatchChargeResult(key, original.id(), original.status(), REPLAY_MESSAGE)
+                    : new BatchChargeResult(key, null, "FAILED", "Payment could not be recorded");
+        }
+        return List.of(results);
+    }
+
+    // Unordered bulk insert; returns the write error code by position for the rows that failed
+    private Map<Integer, Integer> insertPending(List<Payment> pending) {
+        Map<Integer, Integer> errors = new HashMap<>();
+        if (pending.isEmpty()) {
+            return errors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class).insert(pending).execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                errors.put(error.getIndex(), error.getCode());
+            }
+        }
+        return errors;
+    }
+
+    // Runs the status updates; returns the positions of the updates that were not written
+    private Set<Integer> writeStatuses(BulkOperations statusUpdates, int count) {
+        if (count == 0) {
+            return Set.of();
+        }
+        try {
+            statusUpdates.execute();
+            return Set.of();
+        } catch (BulkOperationException ex) {
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            log.warn("{} of {} charge statuses in a batch were not recorded", failed.size(), count);
+            return failed;
+        } catch (DataAccessException ex) {
+            log.warn("Charge statuses for a batch of {} were not recorded: {}", count, ex.getMessage());
+            return IntStream.range(0, count).boxed().collect(Collectors.toSet());
+        }
+    }
+
+    private static BatchChargeResult toResult(String key, ChargeResponse response) {
+        return new BatchChargeResult(key, response.id(), response.status(), response.message());
+    }
+
+    public record ChargeOutcome(ChargeResponse response, boolean replay) {
+        static ChargeOutcome fresh(ChargeResponse response) { return new ChargeOutcome(response, false); }
+        static ChargeOutcome replay(ChargeResponse response) { return new ChargeOutcome(response, true); }
+    }
+}
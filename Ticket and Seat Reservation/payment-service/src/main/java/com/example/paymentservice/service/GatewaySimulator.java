@@ -0,0 +1,115 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.ChargeRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the card gateway. Approves amounts below 1,00,000 (demo rule),
+ * after an optional latency and with an optional random decline rate, so load
+ * tests can model a slow or flaky gateway. Both knobs can be changed at runtime.
+ * Like a real gateway, charges are idempotent per key: a repeated key returns
+ * the recorded outcome without authorizing again, and {@link #lookup} answers
+ * what was decided for a key without charging. The last record-capacity
+ * outcomes are kept, in memory only.
+ * Each call is observed as payment.gateway{outcome}, a span under the charge request.
+ */
+@Component
+public class GatewaySimulator {
+
+    private final ObservationRegistry observations;
+    private final int recordCapacity;
+    private final ConcurrentHashMap<String, Boolean> outcomes = new ConcurrentHashMap<>();
+    private final Queue<String> recordOrder = new ConcurrentLinkedQueue<>();
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double declineRate;
+
+    public GatewaySimulator(@Value("${payment.gateway.latency-ms:0}") long latencyMillis,
+                            @Value("${payment.gateway.jitter-ms:0}") long jitterMillis,
+                            @Value("${payment.gateway.decline-rate:0}") double declineRate,
+                            @Value("${payment.gateway.record-capacity:1000000}") int recordCapacity,
+                            ObservationRegistry observations) {
+        this.observations = observations;
+        this.recordCapacity = recordCapacity;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.declineRate = declineRate;
+    }
+
+    public boolean charge(String idempotencyKey, ChargeRequest req) {
+        Boolean recorded = outcomes.get(idempotencyKey);
+        if (recorded != null) {
+            return recorded;
+        }
+        boolean approved = authorizeObserved(req);
+        recorded = outcomes.putIfAbsent(idempotencyKey, approved);
+        if (recorded != null) {
+            return recorded; // a concurrent call with the same key was decided first
+        }
+        recordOrder.add(idempotencyKey);
+        while (recordOrder.size() > recordCapacity) {
+            String eldest = recordOrder.poll();
+            if (eldest != null) {
+                outcomes.remove(eldest);
+            }
+        }
+        return approved;
+    }
+
+    // Outcome recorded for a key: true approved, false declined, empty when the gateway never saw it
+    public Optional<Boolean> lookup(String idempotencyKey) {
+        return Optional.ofNullable(outcomes.get(idempotencyKey));
+    }
+
+    private boolean authorizeObserved(ChargeRequest req) {
+        Observation observation = Observation.createNotStarted("payment.gateway", observations)
+                .contextualName("gateway charge")
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            boolean approved = authorize(req);
+            observation.lowCardinalityKeyValue("outcome", approved ? "approved" : "declined");
+            return approved;
+        } catch (RuntimeException ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private boolean authorize(ChargeRequest req) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (declineRate > 0 && random.nextDouble() < declineRate) {
+            return false;
+        }
+        // For demo: succeed for amounts < 1,00,000, otherwise fail
+        return req.amount().doubleValue() < 100000;
+    }
+
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    public void setDeclineRate(double declineRate) {
+        this.declineRate = declineRate;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.ChargeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Final charge results by Idempotency-Key, so client retries are answered
+ * without a Mongo lookup. Bounded LRU with a per-entry TTL.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // not synchronized: virtual threads waiting on a ReentrantLock unmount instead of pinning
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong collisions = new AtomicLong();
+
+    public IdempotencyCache(@Value("${payment.idempotency.cache-max-size:100000}") int maxSize,
+                            @Value("${payment.idempotency.cache-ttl-ms:3600000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    public ChargeResponse get(String key) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.incrementAndGet();
+                return entry.response;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, ChargeResponse response) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        lock.lock();
+        try {
+            entries.put(key, new Entry(response, expiresAt));
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drop results that are no longer final, e.g. charges since refunded; the next retry reads Mongo
+    public void invalidateAll(Collection<String> keys) {
+        lock.lock();
+        try {
+            keys.forEach(entries::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A concurrent request inserted the same key first
+    public void recordCollision() {
+        collisions.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("collisions", collisions.get());
+        return stats;
+    }
+
+    private record Entry(ChargeResponse response, long expiresAt) {}
+}
@@ -0,0 +1,196 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.domain.Payment;
+import com.example.paymentservice.domain.PaymentStatus;
+import com.example.paymentservice.dto.ChargeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Resolves payments left PENDING by a crash between the PENDING insert and the
+ * final save in {@link ChargeService#charge}. Each run streams the PENDING
+ * payments older than stale-after through the status_createdAt index, oldest
+ * first and a cursor batch at a time, so memory stays flat however large the
+ * backlog is. At most parallelism payments are resolved at once; the stream
+ * waits for a free slot. Each payment is first claimed with a conditional
+ * update (still PENDING, no live claim by another run or instance), then the
+ * gateway is asked what it recorded under the payment's idempotency key; it is
+ * never charged again. A key the gateway never saw means nothing was charged,
+ * so the payment is FAILED. The result is written only while the claim is
+ * still ours; a claim left by a crashed run expires after claim-ms.
+ * Resolved payments are counted in payment.reconcile.resolved{outcome} and the
+ * stale backlog left after a run is the payment.reconcile.backlog gauge.
+ */
+@Component
+public class PaymentReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciler.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final GatewaySimulator gateway;
+    private final IdempotencyCache idempotencyCache;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long staleAfterMillis;
+    private final long claimMillis;
+    // identifies this instance's claims on payments
+    private final String owner = UUID.randomUUID().toString();
+    private final int batchSize;
+    private final int parallelism;
+    private final Semaphore slots;
+    private final ExecutorService pool;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public PaymentReconciler(MongoTemplate mongoTemplate, GatewaySimulator gateway,
+                             IdempotencyCache idempotencyCache, MeterRegistry registry,
+                             @Value("${payment.reconcile.enabled:true}") boolean enabled,
+                             @Value("${payment.reconcile.stale-after-ms:300000}") long staleAfterMillis,
+                             @Value("${payment.reconcile.claim-ms:60000}") long claimMillis,
+                             @Value("${payment.reconcile.batch-size:500}") int batchSize,
+                             @Value("${payment.reconcile.parallelism:4}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.gateway = gateway;
+        this.idempotencyCache = idempotencyCache;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.staleAfterMillis = staleAfterMillis;
+        this.claimMillis = claimMillis;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.slots = new Semaphore(parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "payment-reconcile-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("payment.reconcile.backlog", backlog, AtomicLong::get)
+                .description("Stale PENDING payments left after the last reconciliation run")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${payment.reconcile.interval-ms:60000}",
+            fixedDelayString = "${payment.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        OffsetDateTime cutoff = OffsetDateTime.now().minusNanos(staleAfterMillis * 1_000_000L);
+        Query query = stalePending(cutoff)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .cursorBatchSize(batchSize);
+        query.fields().include("orderId", "amount", "currency", "idempotencyKey");
+
+        long submitted = 0;
+        try (Stream<Payment> stream = mongoTemplate.stream(query, Payment.class)) {
+            Iterator<Payment> it = stream.iterator();
+            while (it.hasNext()) {
+                Payment payment = it.next();
+                slots.acquireUninterruptibly();
+                try {
+                    pool.execute(() -> {
+                        try {
+                            resolve(payment);
+                        } catch (RuntimeException ex) {
+                            log.warn("Could not reconcile payment {}: {}", payment.getId(), ex.getMessage());
+                            count("error");
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    slots.release();
+                    break; // shutting down
+                }
+                submitted++;
+            }
+        } finally {
+            // wait for the payments still in flight before reporting
+            slots.acquireUninterruptibly(parallelism);
+            slots.release(parallelism);
+        }
+
+        long remaining = mongoTemplate.count(stalePending(cutoff), Payment.class);
+        backlog.set(remaining);
+        if (submitted > 0 || remaining > 0) {
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Reconciled {} stale PENDING payments in {} ms ({} per second), {} still pending",
+                    submitted, millis, submitted * 1000 / millis, remaining);
+        }
+    }
+
+    private void resolve(Payment payment) {
+        Date now = new Date();
+        Query claimable = Query.query(Criteria.where("_id").is(payment.getId()).and("status").is(PaymentStatus.PENDING)
+                .orOperator(Criteria.where("reconcileClaimUntil").exists(false),
+                        Criteria.where("reconcileClaimUntil").lt(now)));
+        Update claim = Update.update("reconcileOwner", owner)
+                .set("reconcileClaimUntil", new Date(now.getTime() + claimMillis));
+        if (mongoTemplate.updateFirst(claimable, claim, Payment.class).getModifiedCount() == 0) {
+            count("skipped"); // finished meanwhile or being resolved elsewhere
+            return;
+        }
+
+        boolean approved = gateway.lookup(payment.getIdempotencyKey()).orElse(false);
+        PaymentStatus status = approved ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
+        Update update = Update.update("status", status).unset("reconcileOwner").unset("reconcileClaimUntil");
+        if (approved) {
+            update.set("gatewayChargeId", "gw_" + UUID.randomUUID());
+        }
+        Query claimed = Query.query(Criteria.where("_id").is(payment.getId()).and("status").is(PaymentStatus.PENDING)
+                .and("reconcileOwner").is(owner));
+        if (mongoTemplate.updateFirst(claimed, update, Payment.class).getModifiedCount() == 0) {
+            count("skipped");
+            return;
+        }
+        idempotencyCache.put(payment.getIdempotencyKey(),
+                new ChargeResponse(payment.getId(), status.name(), ChargeService.REPLAY_MESSAGE));
+        count(status.name().toLowerCase());
+    }
+
+    // Served by status_createdAt
+    private static Query stalePending(OffsetDateTime cutoff) {
+        return Query.query(Criteria.where("status").is(PaymentStatus.PENDING).and("createdAt").lt(cutoff));
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> Counter.builder("payment.reconcile.resolved")
+                        .description("Stale PENDING payments handled by reconciliation, by result")
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
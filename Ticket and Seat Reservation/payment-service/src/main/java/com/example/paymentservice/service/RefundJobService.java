@@ -0,0 +1,448 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.domain.Payment;
+import com.example.paymentservice.domain.PaymentStatus;
+import com.example.paymentservice.domain.RefundJob;
+import com.example.paymentservice.domain.RefundJobOrders;
+import com.example.paymentservice.domain.RefundJobStatus;
+import com.example.paymentservice.dto.RefundJobRequest;
+import com.example.paymentservice.exception.BadRequestException;
+import com.example.paymentservice.exception.RefundJobsBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bulk refunds, e.g. for every order of a cancelled event. A job's orders are
+ * stored as chunks in refund_job_orders, next to the job document rather than
+ * in it, and worked in waves of up to {@code concurrency} chunks in parallel.
+ * At most max-running jobs run per instance, on their own runner threads; the
+ * chunks of all of them share a pool of worker-threads. Each chunk streams the chunk's SUCCESS payments (orderId_status
+ * index) and refunds them batch-size at a time with one conditional
+ * updateMulti on status=SUCCESS, paced by the job's refunds-per-second limit.
+ * Each batch's idempotency keys are dropped from this instance's
+ * IdempotencyCache, so a charge retry replays REFUNDED rather than SUCCESS.
+ * Counts are added to the job per batch; after each wave the position is
+ * checkpointed on the job. The runner holds the job through an owner token
+ * and a lease that the sweep renews for every job running here. A job whose
+ * runner died (lease expired) is picked up again by the sweep, on this or
+ * another instance, and resumes after the last checkpoint; redoing a wave is
+ * harmless because refunded payments no longer match. A job submitted or
+ * resumed while max-running jobs are running here is refused, and the sweep
+ * only picks up orphaned jobs while there is room.
+ * Refunds are counted in payment.refund.bulk{outcome}.
+ */
+@Service
+public class RefundJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundJobService.class);
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final IdempotencyCache idempotencyCache;
+    private final int maxOrders;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int defaultConcurrency;
+    private final int maxConcurrency;
+    private final int defaultRate;
+    private final long leaseMillis;
+    private final Semaphore runnerSlots;
+    private final ExecutorService runners;
+    private final ExecutorService workers;
+    private final ConcurrentMap<String, String> ownedHere = new ConcurrentHashMap<>();
+    private final Counter refundedCounter;
+    private final Counter skippedCounter;
+
+    public RefundJobService(MongoTemplate mongoTemplate, IdempotencyCache idempotencyCache, MeterRegistry registry,
+                            @Value("${payment.refund.job.max-orders:100000}") int maxOrders,
+                            @Value("${payment.refund.job.chunk-size:200}") int chunkSize,
+                            @Value("${payment.refund.job.batch-size:500}") int batchSize,
+                            @Value("${payment.refund.job.concurrency:4}") int defaultConcurrency,
+                            @Value("${payment.refund.job.max-concurrency:16}") int maxConcurrency,
+                            @Value("${payment.refund.job.rate-per-second:1000}") int defaultRate,
+                            @Value("${payment.refund.job.lease-ms:60000}") long leaseMillis,
+                            @Value("${payment.refund.job.max-running:4}") int maxRunning,
+                            @Value("${payment.refund.job.worker-threads:16}") int workerThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.idempotencyCache = idempotencyCache;
+        this.maxOrders = maxOrders;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.defaultConcurrency = defaultConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.defaultRate = defaultRate;
+        this.leaseMillis = leaseMillis;
+        // one runner thread per slot, so a job never waits in the runners' queue
+        this.runnerSlots = new Semaphore(maxRunning);
+        this.runners = Executors.newFixedThreadPool(maxRunning, daemonThreads("refund-job-"));
+        this.workers = Executors.newFixedThreadPool(workerThreads, daemonThreads("refund-chunk-"));
+        this.refundedCounter = bulkCounter(registry, "refunded");
+        this.skippedCounter = bulkCounter(registry, "skipped");
+    }
+
+    // Stores the job and its orders and starts it in the background
+    public RefundJob submit(RefundJobRequest req) {
+        if (req.orderIds() == null) {
+            throw new BadRequestException("Refund job has no orders");
+        }
+        LinkedHashSet<String> orderIds = new LinkedHashSet<>();
+        for (String orderId : req.orderIds()) {
+            if (orderId != null && !orderId.isBlank()) {
+                orderIds.add(orderId);
+            }
+        }
+        if (orderIds.isEmpty()) {
+            throw new BadRequestException("Refund job has no orders");
+        }
+        if (orderIds.size() > maxOrders) {
+            throw new BadRequestException("Refund job exceeds " + maxOrders + " orders");
+        }
+        if (!runnerSlots.tryAcquire()) {
+            throw new RefundJobsBusyException("Too many refund jobs running; retry later");
+        }
+        RefundJob saved;
+        try {
+            saved = insert(req, new ArrayList<>(orderIds));
+        } catch (RuntimeException ex) {
+            runnerSlots.release();
+            throw ex;
+        }
+        log.info("Refund job {} for event {}: {} orders, concurrency {}, {} refunds/s",
+                saved.getId(), saved.getEventId(), saved.getTotalOrders(), saved.getConcurrency(), saved.getRatePerSecond());
+        start(saved);
+        return saved;
+    }
+
+    // The orders go in first, so a stored job always has them; the job id is assigned here for that
+    private RefundJob insert(RefundJobRequest req, List<String> orderIds) {
+        String jobId = new ObjectId().toHexString();
+        List<RefundJobOrders> chunks = new ArrayList<>();
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            chunks.add(new RefundJobOrders(jobId, from,
+                    new ArrayList<>(orderIds.subList(from, Math.min(from + chunkSize, orderIds.size())))));
+        }
+        try {
+            mongoTemplate.insert(chunks, RefundJobOrders.class);
+        } catch (DataAccessException ex) {
+            removeOrders(jobId);
+            throw ex;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        RefundJob job = new RefundJob();
+        job.setId(jobId);
+        job.setEventId(req.eventId());
+        job.setTotalOrders(orderIds.size());
+        job.setConcurrency(clamp(req.concurrency(), defaultConcurrency, 1, maxConcurrency));
+        job.setRatePerSecond(req.ratePerSecond() != null && req.ratePerSecond() >= 0 ? req.ratePerSecond() : defaultRate);
+        job.setStatus(RefundJobStatus.RUNNING);
+        job.setOwner(UUID.randomUUID().toString());
+        job.setLeaseUntil(now.plus(leaseMillis, ChronoUnit.MILLIS));
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        try {
+            return mongoTemplate.insert(job);
+        } catch (DataAccessException ex) {
+            removeOrders(jobId);
+            throw ex;
+        }
+    }
+
+    public Optional<RefundJob> find(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, RefundJob.class));
+    }
+
+    // Restarts a FAILED job, or a RUNNING one whose runner died, after its last checkpoint.
+    // Anything else is returned as it is.
+    public Optional<RefundJob> resume(String id) {
+        if (ownedHere.containsKey(id)) {
+            return find(id);
+        }
+        if (!runnerSlots.tryAcquire()) {
+            throw new RefundJobsBusyException("Too many refund jobs running; retry later");
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(id).orOperator(
+                Criteria.where("status").is(RefundJobStatus.FAILED),
+                Criteria.where("status").is(RefundJobStatus.RUNNING).and("leaseUntil").lt(now)));
+        RefundJob claimed;
+        try {
+            claimed = claim(query, now);
+        } catch (RuntimeException ex) {
+            runnerSlots.release();
+            throw ex;
+        }
+        if (claimed == null) {
+            runnerSlots.release();
+            return find(id);
+        }
+        log.info("Resuming refund job {} after order {} of {}", id, claimed.getNextIndex(), claimed.getTotalOrders());
+        start(claimed);
+        return find(id);
+    }
+
+    // Renews the leases of the jobs running here, then picks up RUNNING jobs whose lease
+    // expired, i.e. whose runner (here or on another instance) died, while there is room
+    @Scheduled(fixedDelayString = "${payment.refund.job.sweep-interval-ms:30000}")
+    public void resumeOrphaned() {
+        ownedHere.forEach((id, owner) -> mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id).and("status").is(RefundJobStatus.RUNNING).and("owner").is(owner)),
+                Update.update("leaseUntil", OffsetDateTime.now().plus(leaseMillis, ChronoUnit.MILLIS)), RefundJob.class));
+
+        while (runnerSlots.tryAcquire()) {
+            RefundJob job;
+            try {
+                job = claim(Query.query(Criteria.where("status").is(RefundJobStatus.RUNNING)
+                        .and("leaseUntil").lt(OffsetDateTime.now())
+                        .and("_id").nin(ownedHere.keySet())), OffsetDateTime.now());
+            } catch (RuntimeException ex) {
+                runnerSlots.release();
+                throw ex;
+            }
+            if (job == null) {
+                runnerSlots.release();
+                return;
+            }
+            log.info("Resuming orphaned refund job {} after order {} of {}",
+                    job.getId(), job.getNextIndex(), job.getTotalOrders());
+            start(job);
+        }
+    }
+
+    private RefundJob claim(Query query, OffsetDateTime now) {
+        Update update = new Update()
+                .set("status", RefundJobStatus.RUNNING)
+                .set("owner", UUID.randomUUID().toString())
+                .set("leaseUntil", now.plus(leaseMillis, ChronoUnit.MILLIS))
+                .set("updatedAt", now)
+                .unset("error")
+                .unset("finishedAt");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), RefundJob.class);
+    }
+
+    // Called holding a runner slot, which the runner gives back when it ends
+    private void start(RefundJob job) {
+        ownedHere.put(job.getId(), job.getOwner());
+        runners.execute(() -> {
+            try {
+                run(job);
+            } catch (RuntimeException ex) {
+                if (runners.isShutdown()) {
+                    // shutting down: the job stays RUNNING and is resumed once its lease expires
+                    log.info("Refund job {} stopped at order {} by shutdown", job.getId(), job.getNextIndex());
+                    return;
+                }
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                log.warn("Refund job {} failed after order {}: {}", job.getId(), job.getNextIndex(), cause.toString());
+                mongoTemplate.updateFirst(owned(job), new Update()
+                        .set("status", RefundJobStatus.FAILED)
+                        .set("error", String.valueOf(cause.getMessage()))
+                        .set("updatedAt", OffsetDateTime.now()), RefundJob.class);
+            } finally {
+                ownedHere.remove(job.getId(), job.getOwner());
+                runnerSlots.release();
+            }
+        });
+    }
+
+    private void run(RefundJob job) {
+        Pacer pacer = new Pacer(job.getRatePerSecond());
+        long lastReport = System.nanoTime();
+        int next = job.getNextIndex();
+        while (true) {
+            // the next wave's chunks; checkpoints always fall on a chunk boundary
+            Query chunks = Query.query(Criteria.where("jobId").is(job.getId()).and("from").gte(next))
+                    .with(Sort.by(Sort.Direction.ASC, "from"))
+                    .limit(job.getConcurrency());
+            List<RefundJobOrders> wave = mongoTemplate.find(chunks, RefundJobOrders.class);
+            if (wave.isEmpty()) {
+                break;
+            }
+            List<CompletableFuture<Void>> running = new ArrayList<>(wave.size());
+            for (RefundJobOrders chunk : wave) {
+                running.add(CompletableFuture.runAsync(() -> refundChunk(job.getId(), chunk.getOrderIds(), pacer), workers));
+            }
+            running.forEach(CompletableFuture::join);
+            RefundJobOrders last = wave.get(wave.size() - 1);
+            next = last.getFrom() + last.getOrderIds().size();
+
+            if (!checkpoint(job, next)) {
+                log.warn("Refund job {} was taken over or changed; this runner stops at order {}", job.getId(), next);
+                return;
+            }
+            if (System.nanoTime() - lastReport > PROGRESS_INTERVAL_NANOS) {
+                lastReport = System.nanoTime();
+                log.info("Refund job {}: {} of {} orders", job.getId(), next, job.getTotalOrders());
+            }
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        if (mongoTemplate.updateFirst(owned(job), new Update()
+                .set("status", RefundJobStatus.COMPLETED)
+                .set("updatedAt", now)
+                .set("finishedAt", now), RefundJob.class).getModifiedCount() > 0) {
+            removeOrders(job.getId());
+        }
+        find(job.getId()).ifPresent(done -> log.info("Refund job {} completed: {} orders, {} refunded, {} already refunded",
+                done.getId(), done.getTotalOrders(), done.getRefunded(), done.getMatched() - done.getRefunded()));
+    }
+
+    // Refunds the SUCCESS payments of these orders a batch at a time
+    private void refundChunk(String jobId, List<String> orderIds, Pacer pacer) {
+        Query query = Query.query(Criteria.where("orderId").in(orderIds).and("status").is(PaymentStatus.SUCCESS))
+                .cursorBatchSize(batchSize);
+        query.fields().include("_id").include("idempotencyKey");
+        String collection = mongoTemplate.getCollectionName(Payment.class);
+        List<Object> batch = new ArrayList<>(batchSize);
+        List<String> keys = new ArrayList<>(batchSize);
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, collection)) {
+            Iterator<Document> it = stream.iterator();
+            while (it.hasNext()) {
+                Document payment = it.next();
+                batch.add(payment.get("_id"));
+                if (payment.getString("idempotencyKey") != null) {
+                    keys.add(payment.getString("idempotencyKey"));
+                }
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    pacer.acquire(batch.size());
+                    refundBatch(jobId, batch, collection);
+                    idempotencyCache.invalidateAll(keys);
+                    batch.clear();
+                    keys.clear();
+                }
+            }
+        }
+    }
+
+    // Conditional on SUCCESS, so a payment is refunded and counted once even when a wave is redone.
+    // Counted on the job right away (not at the checkpoint) so a runner that dies loses no counts.
+    private void refundBatch(String jobId, List<Object> paymentIds, String collection) {
+        Query query = Query.query(Criteria.where("_id").in(paymentIds).and("status").is(PaymentStatus.SUCCESS));
+        long refunded = mongoTemplate.updateMulti(query, Update.update("status", PaymentStatus.REFUNDED), collection)
+                .getModifiedCount();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().inc("matched", paymentIds.size()).inc("refunded", refunded), RefundJob.class);
+        refundedCounter.increment(refunded);
+        skippedCounter.increment(paymentIds.size() - refunded);
+    }
+
+    // Moves the checkpoint and renews the lease, only while this runner still holds the job
+    private boolean checkpoint(RefundJob job, int next) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Update update = new Update()
+                .set("nextIndex", next)
+                .set("leaseUntil", now.plus(leaseMillis, ChronoUnit.MILLIS))
+                .set("updatedAt", now);
+        if (mongoTemplate.updateFirst(owned(job), update, RefundJob.class).getModifiedCount() == 0) {
+            return false;
+        }
+        job.setNextIndex(next);
+        return true;
+    }
+
+    private void removeOrders(String jobId) {
+        mongoTemplate.remove(Query.query(Criteria.where("jobId").is(jobId)), RefundJobOrders.class);
+    }
+
+    private static Query owned(RefundJob job) {
+        return Query.query(Criteria.where("_id").is(job.getId())
+                .and("status").is(RefundJobStatus.RUNNING)
+                .and("owner").is(job.getOwner()));
+    }
+
+    private static int clamp(Integer requested, int fallback, int min, int max) {
+        int value = requested != null ? requested : fallback;
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static Counter bulkCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("payment.refund.bulk")
+                .description("Payments handled by bulk refund jobs, by result")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Spaces permits evenly at the job's rate; shared by the job's chunk workers
+    private static final class Pacer {
+        private final long nanosPerPermit;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = System.nanoTime();
+
+        Pacer(int perSecond) {
+            this.nanosPerPermit = perSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / perSecond : 0;
+        }
+
+        void acquire(int permits) {
+            if (nanosPerPermit == 0) {
+                return;
+            }
+            long wait;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                long start = Math.max(next, now);
+                next = start + permits * nanosPerPermit;
+                wait = start - now;
+            } finally {
+                lock.unlock();
+            }
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Refund job interrupted", ex);
+                }
+            }
+        }
+    }
+}
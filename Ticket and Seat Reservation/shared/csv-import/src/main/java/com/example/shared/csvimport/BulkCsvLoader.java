@@ -0,0 +1,246 @@
+package com.example.shared.csvimport;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Loads CSV files into Mongo. Rows are parsed on the calling thread and
+ * written as unordered bulk batches by {@code parallelism} writer threads.
+ * The number of leading rows known to be written is checkpointed per file in
+ * import_checkpoints, so a rerun after a failure resumes behind them. Batches
+ * that were in flight at the failure are written again: inserts skip
+ * duplicate keys and updates must be idempotent.
+ */
+public final class BulkCsvLoader implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCsvLoader.class);
+
+    static final String CHECKPOINTS = "import_checkpoints";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int MAX_LOGGED_REJECTS = 10;
+
+    // Adds the bulk operations for one row; throws IllegalArgumentException for a bad row
+    public interface RowWriter {
+        void add(BulkOperations bulk, CsvRow row);
+    }
+
+    public record Result(String file, long rows, long resumedAfter, long written, long duplicates, long rejected,
+                  long skipped, long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d rows in %.1fs (%.0f rows/s), written %d, duplicates %d, rejected %d%s%s",
+                    file, rows, elapsedMillis / 1000.0, rowsPerSecond(), written, duplicates, rejected,
+                    skipped > 0 ? ", skipped " + skipped : "",
+                    resumedAfter > 0 ? ", resumed after row " + resumedAfter : "");
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService writers;
+
+    public BulkCsvLoader(MongoTemplate mongoTemplate, int batchSize, int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "csv-import-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Forget all checkpoints so every file is read from the first row again
+    public void resetCheckpoints() {
+        mongoTemplate.remove(new Query(), CHECKPOINTS);
+    }
+
+    public Result load(Path file, Class<?> entity, RowWriter writer) throws IOException, InterruptedException {
+        return load(file, file.getFileName().toString(), entity, row -> true, writer);
+    }
+
+    /**
+     * Load only the rows the filter accepts, checkpointed under {@code key}, so
+     * a second pass over a file already loaded (into another collection) keeps
+     * its own resume point. The filter must give the same answer on a rerun.
+     */
+    public Result load(Path file, String key, Class<?> entity, Predicate<CsvRow> filter, RowWriter writer)
+            throws IOException, InterruptedException {
+        long resumeAfter = checkpoint(key);
+        long started = System.nanoTime();
+        Progress progress = new Progress(key, resumeAfter);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        long rows = 0;
+        long skipped = 0;
+        long lastReport = started;
+
+        try (CsvReader reader = new CsvReader(file)) {
+            List<CsvRow> batch = new ArrayList<>(batchSize);
+            CsvRow row;
+            while (failure.get() == null && (row = reader.next()) != null) {
+                rows++;
+                if (row.number() <= resumeAfter) {
+                    continue;
+                }
+                if (!filter.test(row)) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    submit(batch, entity, writer, progress, inFlight, failure);
+                    batch = new ArrayList<>(batchSize);
+                }
+                long now = System.nanoTime();
+                if (now - lastReport > PROGRESS_INTERVAL_NANOS) {
+                    log.info("{}: {} rows read, {} written, {} rows/s", key, rows, progress.written.get(),
+                            Math.round(rows / ((now - started) / 1e9)));
+                    lastReport = now;
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(batch, entity, writer, progress, inFlight, failure);
+            }
+        } finally {
+            // wait for the batches still being written
+            inFlight.acquire(parallelism * 2);
+            inFlight.release(parallelism * 2);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException(key + " failed after row " + progress.checkpointed
+                    + "; rerun the import to resume", failure.get());
+        }
+        return new Result(key, rows, resumeAfter, progress.written.get(), progress.duplicates.get(),
+                progress.rejected.get(), skipped, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public void close() {
+        writers.shutdownNow();
+    }
+
+    private void submit(List<CsvRow> batch, Class<?> entity, RowWriter writer, Progress progress,
+                        Semaphore inFlight, AtomicReference<RuntimeException> failure) throws InterruptedException {
+        inFlight.acquire();
+        long first = batch.get(0).number();
+        long last = batch.get(batch.size() - 1).number();
+        progress.started(first);
+        writers.execute(() -> {
+            try {
+                write(batch, entity, writer, progress);
+                progress.finished(first, last);
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void write(List<CsvRow> batch, Class<?> entity, RowWriter writer, Progress progress) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entity);
+        int accepted = 0;
+        for (CsvRow row : batch) {
+            try {
+                writer.add(bulk, row);
+                accepted++;
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                if (progress.rejected.incrementAndGet() <= MAX_LOGGED_REJECTS) {
+                    log.warn("{}: rejected row {}: {}", progress.file, row.number(), ex.getMessage());
+                }
+            }
+        }
+        if (accepted == 0) {
+            return;
+        }
+        try {
+            bulk.execute();
+            progress.written.addAndGet(accepted);
+        } catch (BulkOperationException ex) {
+            long duplicates = 0;
+            for (BulkWriteError error : ex.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw ex;
+                }
+                duplicates++;
+            }
+            // rows already present from an earlier, interrupted run
+            progress.duplicates.addAndGet(duplicates);
+            progress.written.addAndGet(accepted - duplicates);
+        }
+    }
+
+    private long checkpoint(String key) {
+        Document saved = mongoTemplate.findById(key, Document.class, CHECKPOINTS);
+        return saved != null && saved.get("rows") instanceof Number rows ? rows.longValue() : 0;
+    }
+
+    // Batches finish out of order; the checkpoint only moves past rows with nothing pending before them
+    private final class Progress {
+        final String file;
+        final AtomicLong written = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        // first row of each batch in flight -> its last row, or -1 while still writing
+        private final TreeMap<Long, Long> batches = new TreeMap<>();
+        long checkpointed;
+
+        Progress(String file, long resumeAfter) {
+            this.file = file;
+            this.checkpointed = resumeAfter;
+        }
+
+        synchronized void started(long first) {
+            batches.put(first, -1L);
+        }
+
+        void finished(long first, long last) {
+            long advanceTo;
+            synchronized (this) {
+                batches.put(first, last);
+                advanceTo = checkpointed;
+                while (!batches.isEmpty() && batches.firstEntry().getValue() >= 0) {
+                    advanceTo = batches.pollFirstEntry().getValue();
+                }
+                if (advanceTo == checkpointed) {
+                    return;
+                }
+                checkpointed = advanceTo;
+            }
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(file)),
+                    new Update().max("rows", advanceTo).currentDate("updatedAt"), CHECKPOINTS);
+        }
+    }
+}
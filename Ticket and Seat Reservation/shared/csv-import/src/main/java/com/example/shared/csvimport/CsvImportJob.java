@@ -0,0 +1,91 @@
+package com.example.shared.csvimport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * Base for a service's CSV bulk import. Each service's import is its own
+ * Spring Boot configuration with a main method that calls {@link #run}: a
+ * context with no web server, no scheduled jobs and only the import's beans
+ * is started under the {@value #PROFILE} profile, the files are loaded
+ * through a {@link BulkCsvLoader} and the process exits with 0, or 1 if the
+ * import failed. The serving application never starts an import, since the
+ * import configurations are gated on the profile.
+ */
+public abstract class CsvImportJob {
+
+    public static final String PROFILE = "import";
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportJob.class);
+
+    protected final MongoTemplate mongoTemplate;
+    private final Path dir;
+    private final int batchSize;
+    private final int parallelism;
+    private final boolean restart;
+
+    protected CsvImportJob(MongoTemplate mongoTemplate, String dir, int batchSize, int parallelism, boolean restart) {
+        this.mongoTemplate = mongoTemplate;
+        this.dir = Path.of(dir);
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.restart = restart;
+    }
+
+    // Start the job's context, import and exit; called from the job's main method
+    public static void run(Class<? extends CsvImportJob> job, String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(job)
+                .web(WebApplicationType.NONE)
+                .profiles(PROFILE)
+                .run(args);
+        int status = 0;
+        try {
+            context.getBean(job).importAll();
+        } catch (Exception e) {
+            log.error("CSV import failed", e);
+            status = 1;
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    public void importAll() throws IOException, InterruptedException {
+        try (BulkCsvLoader loader = new BulkCsvLoader(mongoTemplate, batchSize, parallelism)) {
+            if (restart) {
+                loader.resetCheckpoints();
+            }
+            importFiles(loader);
+        }
+    }
+
+    // Load this service's files, in dependency order, through load()
+    protected abstract void importFiles(BulkCsvLoader loader) throws IOException, InterruptedException;
+
+    // Files missing from the directory are skipped
+    protected void load(BulkCsvLoader loader, String fileName, Class<?> entity, BulkCsvLoader.RowWriter writer)
+            throws IOException, InterruptedException {
+        load(loader, fileName, fileName, entity, row -> true, writer);
+    }
+
+    // A further pass over a file, over the rows the filter accepts, resumed from its own checkpoint
+    protected void load(BulkCsvLoader loader, String fileName, String checkpointKey, Class<?> entity,
+                        Predicate<CsvRow> filter, BulkCsvLoader.RowWriter writer)
+            throws IOException, InterruptedException {
+        Path file = dir.resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            log.info("{} not found in {}, skipped", fileName, dir.toAbsolutePath());
+            return;
+        }
+        log.info("Imported {}", loader.load(file, checkpointKey, entity, filter, writer));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.shared.csvimport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming CSV reader that holds one row at a time. Handles quoted fields
+ * (embedded commas, line breaks and doubled quotes), LF or CRLF line ends and
+ * a UTF-8 byte order mark. The first record is the header; blank lines are skipped.
+ */
+final class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int pos;
+    private int limit;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    CsvReader(Path file) throws IOException {
+        this.in = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("Empty CSV file: " + file);
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            if (i == 0 && !name.isEmpty() && name.charAt(0) == '\uFEFF') {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+    }
+
+    // Next data row (numbered from 1), or null at end of file
+    CsvRow next() throws IOException {
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+        return new CsvRow(++rowNumber, columns, values.toArray(String[]::new));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field after row " + rowNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                values.add(field.toString());
+                return values;
+            } else if (c == '\r') {
+                // dropped; the following \n ends the record
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[pos++];
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shared.csvimport;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+// One CSV data row, read by header name. Missing or blank required values are
+// an IllegalArgumentException, which the loader counts as a rejected row.
+public record CsvRow(long number, Map<String, Integer> columns, String[] values) {
+
+    static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public String get(String column) {
+        String value = optional(column);
+        if (value == null) {
+            throw new IllegalArgumentException("row " + number + ": missing " + column);
+        }
+        return value;
+    }
+
+    public String optional(String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    public int getInt(String column) {
+        return Integer.parseInt(get(column));
+    }
+
+    public double getDouble(String column) {
+        return Double.parseDouble(get(column));
+    }
+
+    public BigDecimal getDecimal(String column) {
+        return new BigDecimal(get(column));
+    }
+
+    // "2024-01-28 22:02:21" as written by the seed-data exports; ISO-8601 is accepted too
+    public LocalDateTime getTimestamp(String column) {
+        String value = get(column);
+        return value.indexOf('T') > 0 ? LocalDateTime.parse(value) : LocalDateTime.parse(value, TIMESTAMP);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.shared.tracing;
+
+import io.micrometer.tracing.Baggage;
+import io.micrometer.tracing.BaggageInScope;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Puts X-Correlation-ID (the id notification-service already logs) into the
+ * trace baggage for the whole request: the one carried by the incoming trace
+ * headers or sent as a plain header, or a new one when the caller sent none.
+ * From there it is logged, tagged on spans and sent on outgoing Feign calls.
+ * Runs just inside the HTTP server observation so the baggage joins its span.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-ID";
+
+    private final Tracer tracer;
+
+    public CorrelationIdFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = currentCorrelationId();
+        if (correlationId == null) {
+            String header = request.getHeader(HEADER);
+            correlationId = header != null && !header.isBlank() ? header : UUID.randomUUID().toString();
+        }
+        response.setHeader(HEADER, correlationId);
+        try (BaggageInScope ignored = tracer.createBaggageInScope(HEADER, correlationId)) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    // already extracted from the incoming trace headers by the propagator
+    private String currentCorrelationId() {
+        Baggage baggage = tracer.getBaggage(HEADER);
+        String value = baggage != null ? baggage.get() : null;
+        return value != null && !value.isBlank() ? value : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.shared.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.nio.file.Path;
+
+// Shared by order-service and payment-service, which compile this directory in and @Import it
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public CorrelationIdFilter correlationIdFilter(Tracer tracer) {
+        return new CorrelationIdFilter(tracer);
+    }
+
+    // Every Mongo command becomes a child span of the request or stage that issued it
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservation(ObservationRegistry registry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(registry))
+                .addCommandListener(new MongoObservationCommandListener(registry));
+    }
+
+    // Exported alongside (or instead of) OTLP when tracing.file.path is set
+    @Bean
+    @ConditionalOnProperty("tracing.file.path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.file.path}") String path,
+                                             @Value("${spring.application.name}") String service) {
+        return new FileSpanExporter(Path.of(path), service);
+    }
+}